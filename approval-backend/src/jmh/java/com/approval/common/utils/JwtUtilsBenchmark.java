@@ -0,0 +1,79 @@
+package com.approval.common.utils;
+
+import com.approval.common.security.ApprovalUserPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每个请求解析 Token 的开销
+ * legacyPerRequest：改造前的做法，每次调用重新生成密钥、构建解析器，且 validateToken 与 getUsernameFromToken 各解析一次；
+ * reusedParserMiss：密钥与解析器只初始化一次，Claims 缓存未命中（完整 HMAC 校验一次）；
+ * cachedClaimsHit：JwtUtils.parsePrincipal 命中 Claims 缓存
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    private static final String SECRET = "YourSecretKeyForJWTTokenGenerationMustBeLongEnough123456";
+
+    private JwtUtils jwtUtils;
+    private JwtParser reusedParser;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(jwtUtils, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "expiration", 604800000L);
+        ReflectionTestUtils.setField(jwtUtils, "claimsCacheSize", 10000L);
+        ReflectionTestUtils.setField(jwtUtils, "claimsCacheTtlSeconds", 300L);
+        jwtUtils.init();
+        token = jwtUtils.generateToken(new ApprovalUserPrincipal(1L, "admin", 1L, 1L));
+        reusedParser = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8))).build();
+    }
+
+    @Benchmark
+    public String legacyPerRequest() {
+        legacyParse(token);
+        return legacyParse(token).getSubject();
+    }
+
+    @Benchmark
+    public String reusedParserMiss() {
+        return reusedParser.parseSignedClaims(token).getPayload().getSubject();
+    }
+
+    @Benchmark
+    public ApprovalUserPrincipal cachedClaimsHit() {
+        return jwtUtils.parsePrincipal(token);
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+}
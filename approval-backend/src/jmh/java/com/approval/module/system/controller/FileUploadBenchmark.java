@@ -0,0 +1,172 @@
+package com.approval.module.system.controller;
+
+import com.approval.ApprovalApplication;
+import com.approval.common.security.ApprovalUserPrincipal;
+import com.approval.common.utils.JwtUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.FileSystemUtils;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.MountableFile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 并发上传 10 MB 文件的吞吐量：流式上传（请求体直接写入目标位置并同时计算 SHA-256）vs multipart 上传
+ * 应用以真实端口启动，数据库为 MySQL 容器；每次上传内容不同，不会命中按内容去重。
+ * 每轮结束清空上传目录与文件表，磁盘占用不超过一轮的上传量
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class FileUploadBenchmark {
+
+    private static final String BOUNDARY = "----approval-benchmark";
+
+    @Param({"10485760"})
+    int fileSize;
+
+    private MySQLContainer<?> mysql;
+    private ConfigurableApplicationContext context;
+    private Path uploadDir;
+    private HttpClient httpClient;
+    private String baseUrl;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        mysql = new MySQLContainer<>("mysql:8.0")
+                .withDatabaseName("approval_system")
+                .withUsername("root")
+                .withPassword("test")
+                .withCopyFileToContainer(MountableFile.forHostPath("../sql/01-create-tables.sql"),
+                        "/docker-entrypoint-initdb.d/01-create-tables.sql")
+                .withCopyFileToContainer(MountableFile.forHostPath("../sql/02-init-data.sql"),
+                        "/docker-entrypoint-initdb.d/02-init-data.sql");
+        mysql.start();
+        uploadDir = Files.createTempDirectory("approval-upload-benchmark");
+        context = new SpringApplicationBuilder(ApprovalApplication.class)
+                .properties(
+                        "spring.datasource.url=" + mysql.getJdbcUrl() + "?serverTimezone=Asia/Shanghai&useSSL=false",
+                        "spring.datasource.username=" + mysql.getUsername(),
+                        "spring.datasource.password=" + mysql.getPassword(),
+                        "server.port=0",
+                        "approval.cache.redis.enabled=false",
+                        "file.upload-path=" + uploadDir,
+                        "file.preview.enabled=false",
+                        "mybatis-plus.configuration.log-impl=org.apache.ibatis.logging.nologging.NoLoggingImpl",
+                        "logging.level.com.approval=info",
+                        "logging.level.com.baomidou.mybatisplus=info")
+                .run();
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/file";
+        token = context.getBean(JwtUtils.class).generateToken(new ApprovalUserPrincipal(1L, "admin", 1L, 1L));
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void cleanUploads() throws IOException {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM sys_file");
+        jdbcTemplate.update("DELETE FROM sys_file_blob");
+        FileSystemUtils.deleteRecursively(uploadDir);
+        Files.createDirectories(uploadDir);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        mysql.stop();
+        FileSystemUtils.deleteRecursively(uploadDir);
+    }
+
+    @Benchmark
+    public int streamUpload(Payload payload) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/upload/stream?fileName=invoice.pdf"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "application/pdf")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(payload.next()))
+                .build();
+        return send(request);
+    }
+
+    @Benchmark
+    public int multipartUpload(Payload payload) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/upload"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(payload.nextMultipart()))
+                .build();
+        return send(request);
+    }
+
+    private int send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200 || !response.body().contains("\"code\":200")) {
+            throw new IllegalStateException("上传失败：" + response.statusCode() + " " + response.body());
+        }
+        return response.body().length();
+    }
+
+    /**
+     * 每个线程一份 fileSize 大小的随机内容，每次上传改写开头 16 字节，保证内容各不相同
+     */
+    @State(Scope.Thread)
+    public static class Payload {
+
+        private byte[] content;
+
+        @Setup(Level.Trial)
+        public void setUp(FileUploadBenchmark benchmark) {
+            content = new byte[benchmark.fileSize];
+            ThreadLocalRandom.current().nextBytes(content);
+        }
+
+        byte[] next() {
+            UUID id = UUID.randomUUID();
+            ByteBuffer.wrap(content, 0, 16).putLong(id.getMostSignificantBits()).putLong(id.getLeastSignificantBits());
+            return content;
+        }
+
+        byte[] nextMultipart() {
+            byte[] file = next();
+            ByteArrayOutputStream body = new ByteArrayOutputStream(file.length + 512);
+            body.writeBytes(("--" + BOUNDARY + "\r\n"
+                    + "Content-Disposition: form-data; name=\"file\"; filename=\"invoice.pdf\"\r\n"
+                    + "Content-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+            body.writeBytes(file);
+            body.writeBytes(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8));
+            return body.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.approval.module.system.service.impl;
+
+import com.approval.ApprovalApplication;
+import com.approval.module.approval.entity.Application;
+import com.approval.module.approval.mapper.ApplicationMapper;
+import com.approval.module.system.entity.User;
+import com.approval.module.system.mapper.UserMapper;
+import com.approval.module.system.service.IAdminService;
+import com.approval.module.system.vo.report.ReportSummaryVo;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.utility.MountableFile;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 报表概览：数据库侧分组计数 vs 改造前的全量加载后在内存中分组
+ * 在 MySQL 容器中按参数生成一个月的用户与申请数据，两种策略读取同一份数据
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReportSummaryBenchmark {
+
+    private static final String MONTH = "2031-03";
+    private static final int DEPT_COUNT = 50;
+    private static final int POST_COUNT = 20;
+    private static final int BATCH_SIZE = 5000;
+
+    @Param({"5000"})
+    int userCount;
+
+    @Param({"200000"})
+    int applicationCount;
+
+    private MySQLContainer<?> mysql;
+    private ConfigurableApplicationContext context;
+    private IAdminService adminService;
+    private UserMapper userMapper;
+    private ApplicationMapper applicationMapper;
+
+    @Setup
+    public void setUp() {
+        mysql = new MySQLContainer<>("mysql:8.0")
+                .withDatabaseName("approval_system")
+                .withUsername("root")
+                .withPassword("test")
+                .withCopyFileToContainer(MountableFile.forHostPath("../sql/01-create-tables.sql"),
+                        "/docker-entrypoint-initdb.d/01-create-tables.sql");
+        mysql.start();
+        context = new SpringApplicationBuilder(ApprovalApplication.class)
+                .properties(
+                        "spring.datasource.url=" + mysql.getJdbcUrl()
+                                + "?serverTimezone=Asia/Shanghai&useSSL=false&rewriteBatchedStatements=true",
+                        "spring.datasource.username=" + mysql.getUsername(),
+                        "spring.datasource.password=" + mysql.getPassword(),
+                        "server.port=0",
+                        "approval.cache.redis.enabled=false",
+                        "file.preview.enabled=false",
+                        "mybatis-plus.configuration.log-impl=org.apache.ibatis.logging.nologging.NoLoggingImpl",
+                        "logging.level.com.approval=info",
+                        "logging.level.com.baomidou.mybatisplus=info")
+                .run();
+        adminService = context.getBean(IAdminService.class);
+        userMapper = context.getBean(UserMapper.class);
+        applicationMapper = context.getBean(ApplicationMapper.class);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        mysql.stop();
+    }
+
+    @Benchmark
+    public ReportSummaryVo sqlAggregation() {
+        return adminService.getReportSummary(MONTH);
+    }
+
+    /**
+     * 改造前的做法：加载全部在职用户与当月全部申请，在内存中按部门、岗位、类型、状态分组
+     */
+    @Benchmark
+    public Object inMemoryGrouping() {
+        YearMonth yearMonth = YearMonth.parse(MONTH);
+        List<User> activeUsers = userMapper.selectList(new LambdaQueryWrapper<User>().eq(User::getStatus, 1));
+        Map<Long, Long> deptCount = activeUsers.stream()
+                .filter(user -> user.getDeptId() != null)
+                .collect(Collectors.groupingBy(User::getDeptId, Collectors.counting()));
+        Map<Long, Long> postCount = activeUsers.stream()
+                .filter(user -> user.getPostId() != null)
+                .collect(Collectors.groupingBy(User::getPostId, Collectors.counting()));
+
+        List<Application> monthApps = applicationMapper.selectList(new LambdaQueryWrapper<Application>()
+                .ge(Application::getSubmitTime, yearMonth.atDay(1).atStartOfDay())
+                .lt(Application::getSubmitTime, yearMonth.plusMonths(1).atDay(1).atStartOfDay()));
+        long[] typeStats = new long[4];
+        for (String appType : new String[]{"leave", "reimburse"}) {
+            int offset = "leave".equals(appType) ? 0 : 2;
+            typeStats[offset] = monthApps.stream().filter(app -> appType.equals(app.getAppType())).count();
+            typeStats[offset + 1] = monthApps.stream()
+                    .filter(app -> appType.equals(app.getAppType()) && Integer.valueOf(3).equals(app.getStatus()))
+                    .count();
+        }
+        Map<Long, long[]> deptMonthly = monthApps.stream()
+                .filter(app -> app.getDeptId() != null)
+                .collect(Collectors.groupingBy(Application::getDeptId)).entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> new long[]{
+                        entry.getValue().stream().filter(app -> "leave".equals(app.getAppType())).count(),
+                        entry.getValue().stream().filter(app -> "reimburse".equals(app.getAppType())).count(),
+                        entry.getValue().stream().filter(app -> Integer.valueOf(3).equals(app.getStatus())).count()}));
+        return new Object[]{deptCount, postCount, typeStats, deptMonthly};
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 1; i <= userCount; i++) {
+            users.add(new Object[]{"bench" + i, "成员" + i, random.nextInt(DEPT_COUNT) + 1, random.nextInt(POST_COUNT) + 1});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO sys_user (username, password, real_name, dept_id, post_id) VALUES (?, 'x', ?, ?, ?)",
+                users, BATCH_SIZE, (ps, row) -> {
+                    ps.setString(1, (String) row[0]);
+                    ps.setString(2, (String) row[1]);
+                    ps.setInt(3, (Integer) row[2]);
+                    ps.setInt(4, (Integer) row[3]);
+                });
+
+        LocalDateTime monthStart = YearMonth.parse(MONTH).atDay(1).atStartOfDay();
+        List<Object[]> applications = new ArrayList<>();
+        for (int i = 1; i <= applicationCount; i++) {
+            applications.add(new Object[]{"B" + i, random.nextBoolean() ? "leave" : "reimburse", random.nextInt(userCount) + 1,
+                    random.nextInt(DEPT_COUNT) + 1, random.nextInt(1, 6), monthStart.plusMinutes(random.nextInt(28 * 24 * 60))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO bpm_application (app_no, app_type, title, applicant_id, dept_id, status, submit_time) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", applications, BATCH_SIZE, (ps, row) -> {
+                    ps.setString(1, (String) row[0]);
+                    ps.setString(2, (String) row[1]);
+                    ps.setString(3, (String) row[0]);
+                    ps.setInt(4, (Integer) row[2]);
+                    ps.setInt(5, (Integer) row[3]);
+                    ps.setInt(6, (Integer) row[4]);
+                    ps.setObject(7, row[5]);
+                });
+    }
+}
@@ -0,0 +1,141 @@
+package com.approval.common.cache;
+
+import com.approval.common.utils.TransactionUtils;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 参考数据两级缓存基类
+ * 一级为本地 Caffeine（容量受限，命中/未命中次数通过 cache.gets 指标暴露），
+ * 二级为 Redis（多节点共享，命中情况通过 cache.l2.gets 指标暴露），两级均未命中时批量回源数据库。
+ * 跨节点失效通知不保证送达，本地条目按 localTtl 过期兜底
+ */
+public abstract class AbstractReferenceCache<V> {
+
+    private final String name;
+    private final Cache<Long, V> cache;
+    private final RedisCacheTier redisTier;
+    private final JavaType valueType;
+
+    protected AbstractReferenceCache(String name, long maximumSize, TypeReference<V> valueType,
+            RedisCacheTier redisTier, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(redisTier.localTtl())
+                .recordStats()
+                .build();
+        this.redisTier = redisTier;
+        this.valueType = redisTier.constructType(valueType);
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        redisTier.subscribe(name, this::onRemoteInvalidation);
+    }
+
+    /**
+     * 加载单个条目，返回 null 表示不存在（不缓存）
+     */
+    protected abstract V load(Long id);
+
+    /**
+     * 批量加载条目，不存在的 ID 不需要出现在结果中
+     */
+    protected abstract Map<Long, V> loadAll(Set<Long> ids);
+
+    public V get(Long id) {
+        if (id == null) {
+            return null;
+        }
+        return cache.get(id, this::loadThrough);
+    }
+
+    public Map<Long, V> getAll(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Set<Long> keys = ids.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        if (keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return cache.getAll(keys, missing -> loadAllThrough(new HashSet<>(missing)));
+    }
+
+    /**
+     * 立即失效，并在当前事务提交后再失效一次，避免并发读取把旧数据重新装入缓存
+     */
+    public void invalidate(Long id) {
+        if (id == null) {
+            return;
+        }
+        cache.invalidate(id);
+        redisTier.evict(name, id);
+        TransactionUtils.afterCommit(() -> {
+            cache.invalidate(id);
+            redisTier.evict(name, id);
+        });
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        redisTier.evictAll(name);
+        TransactionUtils.afterCommit(() -> {
+            cache.invalidateAll();
+            redisTier.evictAll(name);
+        });
+    }
+
+    /**
+     * 其他节点广播的失效通知只清理本地一级缓存
+     */
+    protected void onRemoteInvalidation(String key) {
+        if (RedisCacheTier.ALL_KEYS.equals(key)) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(Long.valueOf(key));
+        }
+    }
+
+    /**
+     * 回源前读取二级缓存版本号：回源期间任一节点失效过该缓存时，读到的可能是提交前的旧值，不写入 Redis
+     */
+    private V loadThrough(Long id) {
+        V value = redisTier.get(name, id, valueType);
+        if (value != null) {
+            return value;
+        }
+        String version = redisTier.version(name);
+        value = load(id);
+        if (value != null) {
+            redisTier.put(name, id, value, version);
+        }
+        return value;
+    }
+
+    private Map<Long, V> loadAllThrough(Set<Long> ids) {
+        Map<Long, V> result = new HashMap<>(redisTier.<V>getAll(name, ids, valueType));
+        Set<Long> missing = ids.stream()
+                .filter(id -> !result.containsKey(id))
+                .collect(Collectors.toSet());
+        if (!missing.isEmpty()) {
+            String version = redisTier.version(name);
+            Map<Long, V> loaded = loadAll(missing);
+            redisTier.putAll(name, loaded, version);
+            result.putAll(loaded);
+        }
+        return result;
+    }
+}
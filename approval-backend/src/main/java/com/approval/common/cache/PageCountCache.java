@@ -0,0 +1,100 @@
+package com.approval.common.cache;
+
+import com.approval.common.result.CountAwarePage;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 分页总数统计
+ * 精确总数按"查询名 + 规范化过滤条件"短期缓存，同一筛选条件翻页时不重复 COUNT；
+ * 不需要精确总数时改用 EXPLAIN 的预估行数，不扫描数据
+ */
+@Component
+@RequiredArgsConstructor
+public class PageCountCache {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${approval.cache.page-count.maximum-size:1000}")
+    private long maximumSize;
+
+    @Value("${approval.cache.page-count.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    private Cache<String, Long> cache;
+
+    @PostConstruct
+    public void init() {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "pageCount");
+    }
+
+    /**
+     * 构建缓存键：字符串条件去除首尾空白，空值与空串视为同一条件
+     */
+    public static String key(String queryName, Object... filters) {
+        return queryName + "|" + Arrays.stream(filters)
+                .map(filter -> filter == null ? "" : filter.toString().trim())
+                .collect(Collectors.joining("|"));
+    }
+
+    /**
+     * 按统计方式填充分页总数
+     *
+     * @param exact 是否需要精确总数
+     * @param counter 精确统计（COUNT）
+     * @param explainer 执行计划（EXPLAIN），用于估算
+     */
+    public void fillTotal(CountAwarePage<?> page, String key, boolean exact,
+            Supplier<Long> counter, Supplier<List<Map<String, Object>>> explainer) {
+        if (!exact) {
+            page.setTotal(estimate(explainer.get()));
+            page.setCountType(CountAwarePage.CountType.ESTIMATED);
+            return;
+        }
+        Long cached = cache.getIfPresent(key);
+        if (cached != null) {
+            page.setTotal(cached);
+            page.setCountType(CountAwarePage.CountType.CACHED);
+            return;
+        }
+        long total = counter.get();
+        cache.put(key, total);
+        page.setTotal(total);
+        page.setCountType(CountAwarePage.CountType.EXACT);
+    }
+
+    /**
+     * 取执行计划首行的 rows × filtered%
+     */
+    private long estimate(List<Map<String, Object>> plan) {
+        if (plan == null || plan.isEmpty()) {
+            return 0L;
+        }
+        Map<String, Object> row = plan.get(0);
+        Object rows = row.get("rows");
+        if (!(rows instanceof Number)) {
+            return 0L;
+        }
+        Object filtered = row.get("filtered");
+        double ratio = filtered instanceof Number ? ((Number) filtered).doubleValue() / 100 : 1D;
+        return Math.round(((Number) rows).longValue() * ratio);
+    }
+}
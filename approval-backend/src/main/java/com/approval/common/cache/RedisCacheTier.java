@@ -0,0 +1,271 @@
+package com.approval.common.cache;
+
+import com.approval.config.RedisCacheProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Redis 二级缓存
+ * 值以 JSON 保存在 {keyPrefix}{cacheName}:{key}；失效时删除键并在频道上广播 "{cacheName}|{key}"（key 为 * 表示全部），
+ * 各节点收到后清理本地缓存。Redis 不可用时暂停访问一段时间，调用方退回本地缓存和数据库
+ * 每个缓存在 {keyPrefix}version:{cacheName} 保存失效版本号，失效时先加一再删除条目；回源结果只在版本号未变时写入，
+ * 避免事务提交前读到的旧值在提交后的失效之后才写入 Redis
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RedisCacheTier {
+
+    public static final String ALL_KEYS = "*";
+
+    private static final String MESSAGE_SEPARATOR = "|";
+
+    private static final String INITIAL_VERSION = "0";
+
+    /**
+     * KEYS[1] 为版本号，其余为条目；ARGV[1] 为回源前读到的版本号，ARGV[2] 为过期毫秒数，其余为条目值
+     */
+    private static final RedisScript<Long> PUT_IF_VERSION_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('GET', KEYS[1]) or '" + INITIAL_VERSION + "' " +
+            "if current ~= ARGV[1] then return 0 end " +
+            "for i = 2, #KEYS do redis.call('SET', KEYS[i], ARGV[i + 1], 'PX', ARGV[2]) end " +
+            "return 1", Long.class);
+
+    /**
+     * 版本号加一与删除条目原子执行
+     */
+    private static final RedisScript<Long> EVICT_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('INCR', KEYS[1]) return redis.call('DEL', KEYS[2])", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final RedisCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Consumer<String>> listeners = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    private volatile long suspendedUntil;
+
+    /**
+     * 本地一级缓存的过期时间，不超过二级缓存的过期时间
+     */
+    public Duration localTtl() {
+        Duration localTtl = properties.getLocalTtl();
+        return localTtl.compareTo(properties.getTtl()) < 0 ? localTtl : properties.getTtl();
+    }
+
+    public JavaType constructType(TypeReference<?> typeReference) {
+        return objectMapper.getTypeFactory().constructType(typeReference);
+    }
+
+    /**
+     * 读取单个条目，未命中或 Redis 不可用时返回 null
+     */
+    public <V> V get(String cacheName, Object key, JavaType valueType) {
+        String json = execute(() -> redisTemplate.opsForValue().get(redisKey(cacheName, key)), null);
+        V value = deserialize(json, valueType);
+        count(cacheName, value != null);
+        return value;
+    }
+
+    /**
+     * 批量读取，结果只包含命中的条目
+     */
+    public <V> Map<Long, V> getAll(String cacheName, Collection<Long> keys, JavaType valueType) {
+        if (keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<Long> keyList = new ArrayList<>(keys);
+        List<String> redisKeys = keyList.stream().map(key -> redisKey(cacheName, key)).toList();
+        List<String> values = execute(() -> redisTemplate.opsForValue().multiGet(redisKeys), null);
+        if (values == null) {
+            return Collections.emptyMap();
+        }
+
+        Map<Long, V> result = new HashMap<>();
+        for (int i = 0; i < keyList.size() && i < values.size(); i++) {
+            V value = deserialize(values.get(i), valueType);
+            count(cacheName, value != null);
+            if (value != null) {
+                result.put(keyList.get(i), value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 缓存当前的失效版本号，回源前读取并在写入时传回；Redis 不可用时返回 null，此时不写入
+     */
+    public String version(String cacheName) {
+        return execute(() -> {
+            String version = redisTemplate.opsForValue().get(versionKey(cacheName));
+            return version != null ? version : INITIAL_VERSION;
+        }, null);
+    }
+
+    public void put(String cacheName, Object key, Object value, String expectedVersion) {
+        putAll(cacheName, Collections.singletonMap(key, value), expectedVersion);
+    }
+
+    /**
+     * 批量写入回源结果，仅当版本号仍为 expectedVersion（回源期间没有失效）时写入，否则整批丢弃
+     */
+    public void putAll(String cacheName, Map<?, ?> values, String expectedVersion) {
+        if (values.isEmpty() || expectedVersion == null) {
+            return;
+        }
+        List<String> keys = new ArrayList<>();
+        List<String> args = new ArrayList<>();
+        keys.add(versionKey(cacheName));
+        args.add(expectedVersion);
+        args.add(String.valueOf(properties.getTtl().toMillis()));
+        values.forEach((key, value) -> {
+            String json = serialize(value);
+            if (json != null) {
+                keys.add(redisKey(cacheName, key));
+                args.add(json);
+            }
+        });
+        if (keys.size() == 1) {
+            return;
+        }
+        execute(() -> redisTemplate.execute(PUT_IF_VERSION_SCRIPT, keys, args.toArray()), null);
+    }
+
+    /**
+     * 版本号加一并删除条目，然后通知其他节点
+     */
+    public void evict(String cacheName, Object key) {
+        execute(() -> redisTemplate.execute(EVICT_SCRIPT, List.of(versionKey(cacheName), redisKey(cacheName, key))), null);
+        publish(cacheName, String.valueOf(key));
+    }
+
+    /**
+     * 版本号加一并删除缓存下全部条目，然后通知其他节点
+     * 先加版本号：扫描删除期间完成的回源不会再写入
+     */
+    public void evictAll(String cacheName) {
+        execute(() -> {
+            redisTemplate.opsForValue().increment(versionKey(cacheName));
+            ScanOptions options = ScanOptions.scanOptions().match(redisKey(cacheName, ALL_KEYS)).count(500).build();
+            List<String> keys = new ArrayList<>();
+            try (Cursor<String> cursor = redisTemplate.scan(options)) {
+                cursor.forEachRemaining(keys::add);
+            }
+            return keys.isEmpty() ? 0L : redisTemplate.delete(keys);
+        }, null);
+        publish(cacheName, ALL_KEYS);
+    }
+
+    /**
+     * 只广播失效通知，用于不落 Redis 的本地快照
+     */
+    public void publish(String cacheName, String key) {
+        execute(() -> {
+            redisTemplate.convertAndSend(properties.getChannel(), cacheName + MESSAGE_SEPARATOR + key);
+            return null;
+        }, null);
+    }
+
+    /**
+     * 注册本地失效回调，参数为失效的键（ALL_KEYS 表示全部）
+     */
+    public void subscribe(String cacheName, Consumer<String> listener) {
+        listeners.put(cacheName, listener);
+    }
+
+    /**
+     * 处理频道上收到的失效通知
+     */
+    public void onMessage(String message) {
+        int index = message.indexOf(MESSAGE_SEPARATOR);
+        if (index <= 0) {
+            return;
+        }
+        Consumer<String> listener = listeners.get(message.substring(0, index));
+        if (listener != null) {
+            listener.accept(message.substring(index + 1));
+        }
+    }
+
+    private <T> T execute(Supplier<T> action, T fallback) {
+        if (!properties.isEnabled() || System.currentTimeMillis() < suspendedUntil) {
+            return fallback;
+        }
+        try {
+            return action.get();
+        } catch (RuntimeException e) {
+            suspendedUntil = System.currentTimeMillis() + properties.getFailureBackoff().toMillis();
+            log.warn("Redis 二级缓存不可用，{} 秒内仅使用本地缓存：{}",
+                    properties.getFailureBackoff().toSeconds(), e.getMessage());
+            return fallback;
+        }
+    }
+
+    private String redisKey(String cacheName, Object key) {
+        return properties.getKeyPrefix() + cacheName + ":" + key;
+    }
+
+    /**
+     * 不在 {keyPrefix}{cacheName}:* 下，evictAll 扫描删除时不会删掉版本号
+     */
+    private String versionKey(String cacheName) {
+        return properties.getKeyPrefix() + "version:" + cacheName;
+    }
+
+    private String serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            log.warn("缓存值序列化失败：{}", e.getMessage());
+            return null;
+        }
+    }
+
+    private <V> V deserialize(String json, JavaType valueType) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, valueType);
+        } catch (JsonProcessingException e) {
+            log.warn("缓存值反序列化失败，按未命中处理：{}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void count(String cacheName, boolean hit) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        String result = hit ? "hit" : "miss";
+        counters.computeIfAbsent(cacheName + MESSAGE_SEPARATOR + result, id -> Counter.builder("cache.l2.gets")
+                .tag("cache", cacheName)
+                .tag("result", result)
+                .register(meterRegistry))
+                .increment();
+    }
+}
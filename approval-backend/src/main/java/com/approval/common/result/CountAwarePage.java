@@ -0,0 +1,48 @@
+package com.approval.common.result;
+
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * 带总数来源说明的分页结果
+ * 分页查询本身不执行 COUNT，total 由调用方按统计方式填充，countType 说明 total 的来源
+ */
+@Getter
+@Setter
+public class CountAwarePage<T> extends Page<T> {
+
+    private CountType countType;
+
+    public CountAwarePage(long current, long size) {
+        super(current, size, false);
+    }
+
+    /**
+     * 以相同的分页参数与总数包装转换后的记录
+     */
+    public static <T> CountAwarePage<T> of(CountAwarePage<?> source, List<T> records) {
+        CountAwarePage<T> page = new CountAwarePage<>(source.getCurrent(), source.getSize());
+        page.setTotal(source.getTotal());
+        page.setCountType(source.getCountType());
+        page.setRecords(records);
+        return page;
+    }
+
+    public enum CountType {
+        /**
+         * 本次查询精确统计
+         */
+        EXACT,
+        /**
+         * 精确统计结果的短期缓存，可能滞后于最新数据
+         */
+        CACHED,
+        /**
+         * 按执行计划的索引统计信息估算
+         */
+        ESTIMATED
+    }
+}
@@ -0,0 +1,94 @@
+package com.approval.common.result;
+
+import com.approval.common.exception.BusinessException;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 游标分页结果（按 (时间, ID) 复合键倒序定位，不统计总数）
+ * nextCursor 为下一页的续传令牌，为空表示已到最后一页
+ */
+@Data
+public class CursorPage<T> implements Serializable {
+
+    public static final int DEFAULT_SIZE = 10;
+
+    public static final int MAX_SIZE = 100;
+
+    private List<T> records = Collections.emptyList();
+
+    private Integer size;
+
+    private String nextCursor;
+
+    private Boolean hasMore;
+
+    /**
+     * 规范化每页条数
+     */
+    public static int normalizeSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(size, MAX_SIZE);
+    }
+
+    /**
+     * 由多查一条的结果构建分页：rows 最多 size + 1 条，多出的一条只用于判断是否还有下一页
+     */
+    public static <E, T> CursorPage<T> of(List<E> rows, int size, Function<E, Cursor> cursorOf,
+            Function<List<E>, List<T>> converter) {
+        boolean hasMore = rows.size() > size;
+        List<E> pageRows = hasMore ? rows.subList(0, size) : rows;
+
+        CursorPage<T> page = new CursorPage<>();
+        page.setRecords(converter.apply(pageRows));
+        page.setSize(size);
+        page.setHasMore(hasMore);
+        if (hasMore) {
+            page.setNextCursor(cursorOf.apply(pageRows.get(pageRows.size() - 1)).encode());
+        }
+        return page;
+    }
+
+    /**
+     * 游标位置：上一页最后一条记录的排序时间与ID，排序时间为空时 time 为 null（倒序时空值排在最后）
+     */
+    public record Cursor(LocalDateTime time, Long id) {
+
+        private static final String SEPARATOR = "|";
+
+        public String encode() {
+            String raw = (time != null ? time.toString() : "") + SEPARATOR + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * 解析续传令牌，令牌为空表示第一页，返回 null
+         */
+        public static Cursor decode(String token) {
+            if (token == null || token.isEmpty()) {
+                return null;
+            }
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int index = raw.indexOf(SEPARATOR);
+                if (index < 0) {
+                    throw new IllegalArgumentException(raw);
+                }
+                LocalDateTime time = index == 0 ? null : LocalDateTime.parse(raw.substring(0, index));
+                return new Cursor(time, Long.valueOf(raw.substring(index + 1)));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new BusinessException(ResultCode.VALIDATE_FAILED.getCode(), "无效的分页游标");
+            }
+        }
+    }
+}
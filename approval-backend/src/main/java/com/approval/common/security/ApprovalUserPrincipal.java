@@ -0,0 +1,29 @@
+package com.approval.common.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.security.Principal;
+
+/**
+ * 当前登录用户
+ * 由 JWT 解析得到，deptId / postId 为签发 Token 时的快照
+ */
+@Getter
+@AllArgsConstructor
+public class ApprovalUserPrincipal implements Principal, Serializable {
+
+    private final Long userId;
+
+    private final String username;
+
+    private final Long deptId;
+
+    private final Long postId;
+
+    @Override
+    public String getName() {
+        return username;
+    }
+}
@@ -0,0 +1,36 @@
+package com.approval.common.utils;
+
+import com.approval.common.result.CursorPage;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
+
+import java.time.LocalDateTime;
+
+/**
+ * 游标分页查询工具类
+ */
+public final class CursorQueryUtils {
+
+    private CursorQueryUtils() {
+    }
+
+    /**
+     * 追加 (time, id) 倒序定位条件、排序与 LIMIT size + 1（多取一条用于判断是否还有下一页）
+     * 定位条件展开为 time &lt; ? OR (time = ? AND id &lt; ?)，可直接走 (…, time, id) 复合索引的范围扫描。
+     * MySQL 倒序时 time 为 NULL 的行排在最后：非空游标之后还要带上这些行，空值游标只在这些行内按 id 继续
+     */
+    public static <T> LambdaQueryWrapper<T> seekDesc(LambdaQueryWrapper<T> wrapper,
+            SFunction<T, LocalDateTime> timeColumn, SFunction<T, Long> idColumn,
+            CursorPage.Cursor cursor, int size) {
+        if (cursor != null && cursor.time() == null) {
+            wrapper.isNull(timeColumn).lt(idColumn, cursor.id());
+        } else if (cursor != null) {
+            wrapper.and(w -> w.lt(timeColumn, cursor.time())
+                    .or(x -> x.eq(timeColumn, cursor.time()).lt(idColumn, cursor.id()))
+                    .or(x -> x.isNull(timeColumn)));
+        }
+        return wrapper.orderByDesc(timeColumn)
+                .orderByDesc(idColumn)
+                .last("LIMIT " + (size + 1));
+    }
+}
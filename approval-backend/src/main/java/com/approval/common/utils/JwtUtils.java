@@ -1,38 +1,81 @@
 package com.approval.common.utils;
 
+import com.approval.common.security.ApprovalUserPrincipal;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Date;
 
 /**
  * JWT 工具类
+ * 签名密钥与解析器在启动时初始化一次；最近验签通过的 Token 缓存其 Claims，热点 Token 无需重复做 HMAC 校验
  */
 @Component
+@RequiredArgsConstructor
 public class JwtUtils {
 
+    private static final String CLAIM_USER_ID = "userId";
+    private static final String CLAIM_DEPT_ID = "deptId";
+    private static final String CLAIM_POST_ID = "postId";
+
+    private final MeterRegistry meterRegistry;
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
+    @Value("${jwt.claims-cache.maximum-size:10000}")
+    private long claimsCacheSize;
+
+    @Value("${jwt.claims-cache.ttl-seconds:300}")
+    private long claimsCacheTtlSeconds;
+
+    private SecretKey key;
+
+    private JwtParser parser;
+
+    private Cache<String, Claims> claimsCache;
+
+    @PostConstruct
+    public void init() {
+        this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(key).build();
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(claimsCacheSize)
+                .expireAfterWrite(Duration.ofSeconds(claimsCacheTtlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, claimsCache, "jwtClaims");
+    }
+
     /**
-     * 生成 Token
+     * 生成 Token，携带用户ID、部门ID、岗位ID
      */
-    public String generateToken(String username) {
+    public String generateToken(ApprovalUserPrincipal principal) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + expiration);
 
-        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-
         return Jwts.builder()
-                .subject(username)
+                .subject(principal.getUsername())
+                .claim(CLAIM_USER_ID, principal.getUserId())
+                .claim(CLAIM_DEPT_ID, principal.getDeptId())
+                .claim(CLAIM_POST_ID, principal.getPostId())
                 .issuedAt(now)
                 .expiration(expiryDate)
                 .signWith(key)
@@ -40,34 +83,45 @@ public class JwtUtils {
     }
 
     /**
-     * 从 Token 中获取用户名
+     * 验签并解析 Token，返回 Claims
+     * 缓存命中时仍校验过期时间，已过期的条目会被移除并重新走完整校验（从而抛出过期异常）
+     *
+     * @throws JwtException Token 非法、签名不匹配或已过期
      */
-    public String getUsernameFromToken(String token) {
-        Claims claims = getClaimsFromToken(token);
-        return claims.getSubject();
+    public Claims parseAndValidate(String token) {
+        Claims cached = claimsCache.getIfPresent(token);
+        if (cached != null) {
+            Date expiry = cached.getExpiration();
+            if (expiry == null || expiry.after(new Date())) {
+                return cached;
+            }
+            claimsCache.invalidate(token);
+        }
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        claimsCache.put(token, claims);
+        return claims;
     }
 
     /**
-     * 验证 Token
+     * 解析 Token 得到登录用户，Token 无效时返回 null
+     * 旧版 Token 不含 userId，返回的 principal 中 userId 为 null
      */
-    public boolean validateToken(String token) {
+    public ApprovalUserPrincipal parsePrincipal(String token) {
+        Claims claims;
         try {
-            getClaimsFromToken(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            claims = parseAndValidate(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
         }
+        return new ApprovalUserPrincipal(
+                getLongClaim(claims, CLAIM_USER_ID),
+                claims.getSubject(),
+                getLongClaim(claims, CLAIM_DEPT_ID),
+                getLongClaim(claims, CLAIM_POST_ID));
     }
 
-    /**
-     * 解析 Token
-     */
-    private Claims getClaimsFromToken(String token) {
-        SecretKey key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
-        return Jwts.parser()
-                .verifyWith(key)
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    private Long getLongClaim(Claims claims, String name) {
+        Object value = claims.get(name);
+        return value instanceof Number number ? number.longValue() : null;
     }
 }
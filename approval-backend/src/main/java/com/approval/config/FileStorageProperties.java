@@ -3,6 +3,12 @@ package com.approval.config;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 
 /**
  * 文件上传配置
@@ -16,4 +22,91 @@ public class FileStorageProperties {
      * 上传目录（可以为相对或绝对路径）
      */
     private String uploadPath = "upload";
+
+    /**
+     * 存储方式，默认按内容寻址去重
+     */
+    private StorageMode storageMode = StorageMode.CONTENT_ADDRESSED;
+
+    /**
+     * 单个文件大小上限（流式上传在写入过程中校验）
+     */
+    private DataSize maxFileSize = DataSize.ofMegabytes(10);
+
+    /**
+     * 流式上传读写缓冲区大小
+     */
+    private DataSize streamBufferSize = DataSize.ofKilobytes(64);
+
+    /**
+     * 分片上传的文件大小上限
+     */
+    private DataSize chunkedMaxFileSize = DataSize.ofMegabytes(200);
+
+    /**
+     * 分片大小（最后一片可以更小）
+     */
+    private DataSize chunkSize = DataSize.ofMegabytes(5);
+
+    /**
+     * 未完成的分片上传保留时长，超时后在新建分片上传时清理
+     */
+    private Duration chunkedUploadExpire = Duration.ofHours(24);
+
+    /**
+     * 图片缩略图与预览图生成
+     */
+    private Preview preview = new Preview();
+
+    /**
+     * 上传根目录的绝对路径
+     */
+    public Path resolveUploadRoot() {
+        return Paths.get(StringUtils.hasText(uploadPath) ? uploadPath : "upload").toAbsolutePath().normalize();
+    }
+
+    public enum StorageMode {
+        /**
+         * 按上传日期分目录，每次上传生成新文件
+         */
+        DATED,
+        /**
+         * 按内容 SHA-256 分片存储，相同内容只保存一份，文件记录写入 sys_file
+         */
+        CONTENT_ADDRESSED
+    }
+
+    @Data
+    public static class Preview {
+
+        /**
+         * 是否在上传完成后生成缩略图与预览图
+         */
+        private boolean enabled = true;
+
+        /**
+         * 生成线程数
+         */
+        private int threads = 2;
+
+        /**
+         * 等待队列容量，队列满时跳过生成，上传结果不返回预览地址
+         */
+        private int queueCapacity = 200;
+
+        /**
+         * 缩略图最长边（像素）
+         */
+        private int thumbnailSize = 240;
+
+        /**
+         * 预览图最长边（像素）
+         */
+        private int previewSize = 1280;
+
+        /**
+         * JPEG 压缩质量（0-1）
+         */
+        private float quality = 0.8f;
+    }
 }
@@ -1,12 +1,17 @@
 package com.approval.config;
 
+import com.approval.common.security.ApprovalUserPrincipal;
 import com.approval.common.utils.JwtUtils;
+import com.approval.module.system.cache.PostPermissionCache;
+import com.approval.module.system.cache.UserCache;
+import com.approval.module.system.entity.User;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
@@ -14,26 +19,30 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationTokenFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
+    private final UserCache userCache;
+    private final PostPermissionCache postPermissionCache;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
         String token = getTokenFromRequest(request);
 
-        if (StringUtils.hasText(token) && jwtUtils.validateToken(token)) {
-            String username = jwtUtils.getUsernameFromToken(token);
+        ApprovalUserPrincipal principal = StringUtils.hasText(token) ? jwtUtils.parsePrincipal(token) : null;
+        if (principal != null && principal.getUserId() == null) {
+            principal = resolveLegacyPrincipal(principal.getUsername());
+        }
 
-            // 简单实现：创建认证对象（不查询数据库加载详细权限）
-            // 如果需要详细权限控制，应该注入 UserDetailsService 并加载 UserDetails
+        if (principal != null) {
             UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                    username, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER")));
+                    principal, null, resolveAuthorities(principal.getUserId()));
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
         }
@@ -41,6 +50,35 @@ public class JwtAuthenticationTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * ROLE_USER 加上用户当前岗位的权限编码（如 SYSTEM_ADMIN），均来自本地缓存，不访问数据库
+     * 岗位按用户当前数据取，不用 Token 中的快照，调岗或收回权限后立即生效
+     */
+    private List<GrantedAuthority> resolveAuthorities(Long userId) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
+        User user = userCache.get(userId);
+        if (user != null && user.getPostId() != null) {
+            postPermissionCache.getCodes(user.getPostId())
+                    .forEach(code -> authorities.add(new SimpleGrantedAuthority(code)));
+        }
+        return authorities;
+    }
+
+    /**
+     * 兼容升级前签发的 Token（不含 userId），按用户名补全一次
+     */
+    private ApprovalUserPrincipal resolveLegacyPrincipal(String username) {
+        if (!StringUtils.hasText(username)) {
+            return null;
+        }
+        User user = userCache.getByUsername(username);
+        if (user == null) {
+            return null;
+        }
+        return new ApprovalUserPrincipal(user.getUserId(), user.getUsername(), user.getDeptId(), user.getPostId());
+    }
+
     private String getTokenFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
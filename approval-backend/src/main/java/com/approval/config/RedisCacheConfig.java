@@ -0,0 +1,30 @@
+package com.approval.config;
+
+import com.approval.common.cache.RedisCacheTier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Redis 二级缓存跨节点失效订阅
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "approval.cache.redis", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RedisCacheConfig {
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+            RedisCacheTier redisCacheTier, RedisCacheProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> redisCacheTier.onMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(properties.getChannel()));
+        return container;
+    }
+}
@@ -0,0 +1,46 @@
+package com.approval.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Redis 二级缓存配置
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "approval.cache.redis")
+public class RedisCacheProperties {
+
+    /**
+     * 是否启用 Redis 二级缓存及跨节点失效通知
+     */
+    private boolean enabled = true;
+
+    /**
+     * 二级缓存条目过期时间，失效通知丢失时的兜底
+     */
+    private Duration ttl = Duration.ofMinutes(30);
+
+    /**
+     * 本地一级缓存条目过期时间（不超过 ttl），失效通知丢失或 Redis 不可用期间其他节点的本地缓存最多旧这么久
+     */
+    private Duration localTtl = Duration.ofMinutes(5);
+
+    /**
+     * 缓存键前缀
+     */
+    private String keyPrefix = "approval:cache:";
+
+    /**
+     * 跨节点失效通知频道
+     */
+    private String channel = "approval:cache:invalidate";
+
+    /**
+     * Redis 访问失败后暂停使用二级缓存的时长，期间只读本地缓存和数据库
+     */
+    private Duration failureBackoff = Duration.ofSeconds(30);
+}
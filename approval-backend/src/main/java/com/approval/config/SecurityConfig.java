@@ -45,8 +45,10 @@ public class SecurityConfig {
                         .requestMatchers("/auth/**").permitAll()
                         // Knife4j 文档
                         .requestMatchers("/doc.html", "/webjars/**", "/v3/api-docs/**").permitAll()
-                        // 静态资源
+                        // 静态资源与附件下载（iframe 预览不携带 Token）
                         .requestMatchers("/static/**", "/upload/**").permitAll()
+                        // 运行指标（缓存、连接池、线程池、HTTP）仅系统管理员可见
+                        .requestMatchers("/actuator/metrics/**").hasAuthority("SYSTEM_ADMIN")
                 // 其他请求需要认证
                 .anyRequest().authenticated())
             // 允许同源 iframe 预览上传附件
@@ -1,29 +1,28 @@
 package com.approval.config;
 
+import com.approval.common.security.ApprovalUserPrincipal;
+import com.approval.common.security.CurrentUserArgumentResolver;
 import lombok.RequiredArgsConstructor;
+import org.springdoc.core.utils.SpringDocUtils;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.util.StringUtils;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.util.List;
 
 @Configuration
 @RequiredArgsConstructor
 public class WebMvcConfig implements WebMvcConfigurer {
 
-    private final FileStorageProperties fileStorageProperties;
+    static {
+        // 当前登录用户由参数解析器注入，不出现在接口文档的请求参数中
+        SpringDocUtils.getConfig().addRequestWrapperToIgnore(ApprovalUserPrincipal.class);
+    }
+
+    private final CurrentUserArgumentResolver currentUserArgumentResolver;
 
     @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        String uploadPath = fileStorageProperties.getUploadPath();
-        if (!StringUtils.hasText(uploadPath)) {
-            uploadPath = "upload";
-        }
-        Path path = Paths.get(uploadPath).toAbsolutePath().normalize();
-        String location = path.toUri().toString();
-        registry.addResourceHandler("/upload/**")
-                .addResourceLocations(location);
+    public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
+        resolvers.add(currentUserArgumentResolver);
     }
 }
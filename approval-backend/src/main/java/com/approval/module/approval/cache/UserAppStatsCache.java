@@ -0,0 +1,40 @@
+package com.approval.module.approval.cache;
+
+import com.approval.common.cache.AbstractReferenceCache;
+import com.approval.common.cache.RedisCacheTier;
+import com.approval.module.approval.entity.UserAppStats;
+import com.approval.module.approval.mapper.UserAppStatsMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 用户申请统计缓存（按用户ID），供"我的申请"汇总读取
+ */
+@Component
+public class UserAppStatsCache extends AbstractReferenceCache<UserAppStats> {
+
+    private final UserAppStatsMapper userAppStatsMapper;
+
+    public UserAppStatsCache(UserAppStatsMapper userAppStatsMapper, RedisCacheTier redisCacheTier,
+            MeterRegistry meterRegistry) {
+        super("userAppStats", 10000, new TypeReference<UserAppStats>() { }, redisCacheTier, meterRegistry);
+        this.userAppStatsMapper = userAppStatsMapper;
+    }
+
+    @Override
+    protected UserAppStats load(Long userId) {
+        return userAppStatsMapper.selectById(userId);
+    }
+
+    @Override
+    protected Map<Long, UserAppStats> loadAll(Set<Long> userIds) {
+        return userAppStatsMapper.selectBatchIds(userIds).stream()
+                .collect(Collectors.toMap(UserAppStats::getUserId, Function.identity()));
+    }
+}
@@ -1,6 +1,10 @@
 package com.approval.module.approval.controller;
 
+import com.approval.common.cache.PageCountCache;
+import com.approval.common.result.CountAwarePage;
+import com.approval.common.result.CursorPage;
 import com.approval.common.result.Result;
+import com.approval.common.utils.CursorQueryUtils;
 import com.approval.module.approval.entity.Application;
 import com.approval.module.approval.entity.LeaveApplication;
 import com.approval.module.approval.entity.ReimburseApplication;
@@ -8,14 +12,15 @@ import com.approval.module.approval.mapper.ApplicationMapper;
 import com.approval.module.approval.mapper.HistoryMapper;
 import com.approval.module.approval.mapper.LeaveApplicationMapper;
 import com.approval.module.approval.mapper.ReimburseApplicationMapper;
+import com.approval.module.approval.service.IUserAppStatsService;
 import com.approval.module.approval.vo.ApplicationVo;
 import com.approval.module.system.entity.User;
 import com.approval.module.system.mapper.UserMapper;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -34,26 +39,100 @@ public class AdminApplicationController {
     private final ReimburseApplicationMapper reimburseApplicationMapper;
     private final HistoryMapper historyMapper;
     private final UserMapper userMapper;
+    private final IUserAppStatsService userAppStatsService;
+    private final PageCountCache pageCountCache;
 
     @Operation(summary = "获取全部审批数据（只读）")
     @GetMapping
-    public Result<Page<ApplicationVo>> getAllApplications(
+    public Result<CountAwarePage<ApplicationVo>> getAllApplications(
             @RequestParam(defaultValue = "1") Integer pageNum,
             @RequestParam(defaultValue = "10") Integer pageSize,
             @RequestParam(required = false) String appType,
             @RequestParam(required = false) Integer status,
+            @RequestParam(required = false) String appNo,
+            @RequestParam(defaultValue = "true") Boolean exactCount) {
+        CountAwarePage<Application> page = new CountAwarePage<>(pageNum, pageSize);
+        applicationMapper.selectPage(page, applicationFilter(appType, status, appNo)
+                .orderByDesc(Application::getSubmitTime));
+
+        LambdaQueryWrapper<Application> countWrapper = applicationFilter(appType, status, appNo);
+        pageCountCache.fillTotal(page, PageCountCache.key("adminApplications", appType, status, appNo),
+                !Boolean.FALSE.equals(exactCount),
+                () -> applicationMapper.selectCount(countWrapper),
+                () -> applicationMapper.explainSelect(countWrapper));
+
+        return Result.success(CountAwarePage.of(page, toApplicationVos(page.getRecords())));
+    }
+
+    @Operation(summary = "游标分页获取全部审批数据（只读，不统计总数）")
+    @GetMapping("/cursor")
+    public Result<CursorPage<ApplicationVo>> getAllApplicationsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer pageSize,
+            @RequestParam(required = false) String appType,
+            @RequestParam(required = false) Integer status,
             @RequestParam(required = false) String appNo) {
-        Page<Application> page = new Page<>(pageNum, pageSize);
+        int size = CursorPage.normalizeSize(pageSize);
+
+        LambdaQueryWrapper<Application> wrapper = applicationFilter(appType, status, appNo);
+        CursorQueryUtils.seekDesc(wrapper, Application::getSubmitTime, Application::getAppId,
+                CursorPage.Cursor.decode(cursor), size);
+
+        CursorPage<ApplicationVo> voPage = CursorPage.of(applicationMapper.selectList(wrapper), size,
+                app -> new CursorPage.Cursor(app.getSubmitTime(), app.getAppId()),
+                this::toApplicationVos);
+        return Result.success(voPage);
+    }
+
+    @Operation(summary = "获取审批数据详情（只读）")
+    @GetMapping("/{appId}")
+    public Result<Object> getApplicationDetail(@PathVariable Long appId) {
+        Application application = applicationMapper.selectById(appId);
+        if (application == null) {
+            return Result.fail(404, "申请不存在");
+        }
+
+        Map<String, Object> detail = new HashMap<>();
+        detail.put("application", application);
+
+        if ("leave".equals(application.getAppType())) {
+            LeaveApplication leave = leaveApplicationMapper.selectOne(
+                    new LambdaQueryWrapper<LeaveApplication>().eq(LeaveApplication::getAppId, appId));
+            detail.put("detail", leave);
+        } else if ("reimburse".equals(application.getAppType())) {
+            ReimburseApplication reimburse = reimburseApplicationMapper.selectOne(
+                    new LambdaQueryWrapper<ReimburseApplication>().eq(ReimburseApplication::getAppId, appId));
+            detail.put("detail", reimburse);
+        }
+
+        List<com.approval.module.approval.entity.History> histories = historyMapper.selectList(
+                new LambdaQueryWrapper<com.approval.module.approval.entity.History>()
+                        .eq(com.approval.module.approval.entity.History::getAppId, appId)
+                        .orderByDesc(com.approval.module.approval.entity.History::getCreateTime));
+        detail.put("history", histories);
+
+        return Result.success(detail);
+    }
+
+    @Operation(summary = "重建用户申请统计")
+    @PreAuthorize("hasAuthority('SYSTEM_ADMIN')")
+    @PostMapping("/stats/rebuild")
+    public Result<Integer> rebuildUserAppStats() {
+        return Result.success(userAppStatsService.rebuildAll());
+    }
 
+    private LambdaQueryWrapper<Application> applicationFilter(String appType, Integer status, String appNo) {
         LambdaQueryWrapper<Application> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(appType != null && !appType.isEmpty(), Application::getAppType, appType)
                 .eq(status != null, Application::getStatus, status)
-                .like(appNo != null && !appNo.isEmpty(), Application::getAppNo, appNo)
-                .orderByDesc(Application::getSubmitTime);
-
-        Page<Application> appPage = applicationMapper.selectPage(page, wrapper);
+                .like(appNo != null && !appNo.isEmpty(), Application::getAppNo, appNo);
+        return wrapper;
+    }
 
-        List<Application> records = appPage.getRecords();
+    private List<ApplicationVo> toApplicationVos(List<Application> records) {
+        if (records.isEmpty()) {
+            return java.util.Collections.emptyList();
+        }
 
         List<Long> userIds = records.stream()
                 .map(Application::getApplicantId)
@@ -86,8 +165,7 @@ public class AdminApplicationController {
                 .stream()
                 .collect(Collectors.toMap(ReimburseApplication::getAppId, reimburse -> reimburse));
 
-        Page<ApplicationVo> voPage = new Page<>(appPage.getCurrent(), appPage.getSize(), appPage.getTotal());
-        voPage.setRecords(records.stream().map(app -> {
+        return records.stream().map(app -> {
             ApplicationVo vo = new ApplicationVo();
             org.springframework.beans.BeanUtils.copyProperties(app, vo);
             User user = userMap.get(app.getApplicantId());
@@ -106,38 +184,6 @@ public class AdminApplicationController {
             }
             }
             return vo;
-        }).collect(Collectors.toList()));
-
-        return Result.success(voPage);
-    }
-
-    @Operation(summary = "获取审批数据详情（只读）")
-    @GetMapping("/{appId}")
-    public Result<Object> getApplicationDetail(@PathVariable Long appId) {
-        Application application = applicationMapper.selectById(appId);
-        if (application == null) {
-            return Result.fail(404, "申请不存在");
-        }
-
-        Map<String, Object> detail = new HashMap<>();
-        detail.put("application", application);
-
-        if ("leave".equals(application.getAppType())) {
-            LeaveApplication leave = leaveApplicationMapper.selectOne(
-                    new LambdaQueryWrapper<LeaveApplication>().eq(LeaveApplication::getAppId, appId));
-            detail.put("detail", leave);
-        } else if ("reimburse".equals(application.getAppType())) {
-            ReimburseApplication reimburse = reimburseApplicationMapper.selectOne(
-                    new LambdaQueryWrapper<ReimburseApplication>().eq(ReimburseApplication::getAppId, appId));
-            detail.put("detail", reimburse);
-        }
-
-        List<com.approval.module.approval.entity.History> histories = historyMapper.selectList(
-                new LambdaQueryWrapper<com.approval.module.approval.entity.History>()
-                        .eq(com.approval.module.approval.entity.History::getAppId, appId)
-                        .orderByDesc(com.approval.module.approval.entity.History::getCreateTime));
-        detail.put("history", histories);
-
-        return Result.success(detail);
+        }).collect(Collectors.toList());
     }
 }
@@ -0,0 +1,27 @@
+package com.approval.module.approval.entity;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 审批人每日审批汇总表，主键（approver_id, stat_date, app_type, action）
+ */
+@Data
+@TableName("bpm_approver_daily_stats")
+public class ApproverDailyStats {
+
+    private Long approverId;
+
+    private LocalDate statDate;
+
+    private String appType; // leave, reimburse
+
+    private Integer action; // 1=同意 2=拒绝
+
+    private Long approveCount;
+
+    private LocalDateTime updateTime;
+}
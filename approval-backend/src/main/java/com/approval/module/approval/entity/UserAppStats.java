@@ -0,0 +1,42 @@
+package com.approval.module.approval.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 用户申请统计表（按申请人汇总，随申请提交、审批、撤回增量维护）
+ */
+@Data
+@TableName("bpm_user_app_stats")
+public class UserAppStats {
+
+    @TableId(type = IdType.INPUT)
+    private Long userId;
+
+    private Long totalCount;
+
+    private Long pendingCount;
+
+    private Long approvedCount;
+
+    private Long rejectedCount;
+
+    private Long withdrawnCount;
+
+    private Long leaveCount;
+
+    private Long reimburseCount;
+
+    private BigDecimal totalLeaveDays; // 已通过请假天数合计
+
+    private BigDecimal totalReimburseAmount; // 已通过报销金额合计
+
+    private LocalDateTime lastSubmitTime;
+
+    private LocalDateTime updateTime;
+}
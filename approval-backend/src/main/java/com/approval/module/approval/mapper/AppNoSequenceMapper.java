@@ -0,0 +1,23 @@
+package com.approval.module.approval.mapper;
+
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * 申请单号号段Mapper
+ */
+@Mapper
+public interface AppNoSequenceMapper {
+
+    @Select("SELECT max_serial FROM bpm_app_no_seq WHERE biz_date = #{bizDate} FOR UPDATE")
+    Long selectMaxSerialForUpdate(@Param("bizDate") String bizDate);
+
+    @Insert("INSERT IGNORE INTO bpm_app_no_seq (biz_date, max_serial) VALUES (#{bizDate}, #{maxSerial})")
+    int insertIgnore(@Param("bizDate") String bizDate, @Param("maxSerial") Long maxSerial);
+
+    @Update("UPDATE bpm_app_no_seq SET max_serial = #{maxSerial} WHERE biz_date = #{bizDate}")
+    int updateMaxSerial(@Param("bizDate") String bizDate, @Param("maxSerial") Long maxSerial);
+}
@@ -1,12 +1,91 @@
 package com.approval.module.approval.mapper;
 
 import com.approval.module.approval.entity.Application;
+import com.approval.module.approval.vo.ApplicationHistoryVo;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 /**
  * 申请Mapper
  */
 @Mapper
 public interface ApplicationMapper extends BaseMapper<Application> {
+
+    /**
+     * 按单号前缀查询最大单号（走 app_no 唯一索引的范围扫描）
+     */
+    @Select("SELECT MAX(app_no) FROM bpm_application WHERE app_no LIKE CONCAT(#{prefix}, '%')")
+    String selectMaxAppNoByPrefix(@Param("prefix") String prefix);
+
+    /**
+     * 按过滤条件输出执行计划，用于估算列表总数
+     */
+    @Select("<script>" +
+            "EXPLAIN SELECT app_id FROM bpm_application WHERE del_flag = 0 " +
+            "<if test='ew != null and ew.nonEmptyOfWhere'>AND ${ew.sqlSegment}</if>" +
+            "</script>")
+    List<Map<String, Object>> explainSelect(@Param(Constants.WRAPPER) Wrapper<Application> wrapper);
+
+    /**
+     * 按预期的当前状态条件更新申请状态，返回 0 表示状态已被并发修改（已审批或已撤回）
+     */
+    @Update("<script>" +
+            "UPDATE bpm_application SET status = #{toStatus}" +
+            "<if test='finishTime != null'>, finish_time = #{finishTime}</if> " +
+            "WHERE app_id = #{appId} AND status = #{fromStatus} AND del_flag = 0" +
+            "</script>")
+    int transitionStatus(@Param("appId") Long appId, @Param("fromStatus") Integer fromStatus,
+            @Param("toStatus") Integer toStatus, @Param("finishTime") LocalDateTime finishTime);
+
+    /**
+     * 分页查询申请人的审批历史
+     * 请假/报销详情通过 LEFT JOIN 带出，最新一条审批记录通过 LATERAL 子查询带出（需 MySQL 8.0.14+）
+     */
+    @Select("<script>" +
+            "SELECT a.app_id, a.app_no, a.app_type, a.title, a.status, a.current_node, a.submit_time, a.finish_time, " +
+            "h.approver_name, h.action, h.comment, h.approve_time, " +
+            "l.leave_type, l.days AS leave_days, r.expense_type, r.amount AS expense_amount " +
+            "FROM bpm_application a " +
+            "LEFT JOIN bpm_leave_application l ON l.app_id = a.app_id AND a.app_type = 'leave' " +
+            "LEFT JOIN bpm_reimburse_application r ON r.app_id = a.app_id AND a.app_type = 'reimburse' " +
+            "LEFT JOIN LATERAL (" +
+            "SELECT hh.approver_name, hh.action, hh.comment, hh.approve_time FROM bpm_history hh " +
+            "WHERE hh.app_id = a.app_id ORDER BY hh.approve_time DESC, hh.history_id DESC LIMIT 1" +
+            ") h ON TRUE " +
+            "WHERE a.del_flag = 0 AND a.applicant_id = #{applicantId} " +
+            "<choose>" +
+            "<when test='status != null'>AND a.status = #{status} </when>" +
+            "<otherwise>AND a.status IN " +
+            "<foreach collection='historyStatuses' item='item' open='(' separator=',' close=')'>#{item}</foreach> " +
+            "</otherwise>" +
+            "</choose>" +
+            "<if test='appType != null'>AND a.app_type = #{appType} </if>" +
+            "<if test='startTime != null'>AND a.submit_time &gt;= #{startTime} </if>" +
+            "<if test='endTime != null'>AND a.submit_time &lt;= #{endTime} </if>" +
+            "<if test='leaveType != null'>AND (a.app_type != 'leave' OR l.leave_type = #{leaveType}) </if>" +
+            "<if test='expenseType != null'>AND (a.app_type != 'reimburse' OR r.expense_type = #{expenseType}) </if>" +
+            "<if test='approverName != null'>AND h.approver_name LIKE CONCAT('%', #{approverName}, '%') </if>" +
+            "ORDER BY a.submit_time DESC" +
+            "</script>")
+    IPage<ApplicationHistoryVo> selectHistoryPage(Page<ApplicationHistoryVo> page,
+            @Param("applicantId") Long applicantId,
+            @Param("appType") String appType,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime,
+            @Param("approverName") String approverName,
+            @Param("leaveType") Integer leaveType,
+            @Param("expenseType") Integer expenseType,
+            @Param("status") Integer status,
+            @Param("historyStatuses") List<Integer> historyStatuses);
 }
@@ -0,0 +1,44 @@
+package com.approval.module.approval.mapper;
+
+import com.approval.module.approval.entity.ApproverDailyStats;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 审批人每日审批汇总Mapper
+ */
+@Mapper
+public interface ApproverDailyStatsMapper {
+
+    /**
+     * 审批完成时累加当日计数
+     */
+    @Insert("INSERT INTO bpm_approver_daily_stats (approver_id, stat_date, app_type, action, approve_count) " +
+            "VALUES (#{approverId}, #{statDate}, #{appType}, #{action}, 1) " +
+            "ON DUPLICATE KEY UPDATE approve_count = approve_count + 1")
+    int increment(@Param("approverId") Long approverId, @Param("statDate") LocalDate statDate,
+            @Param("appType") String appType, @Param("action") Integer action);
+
+    /**
+     * 按申请类型、审批动作汇总审批人的全部审批数
+     */
+    @Select("SELECT app_type, action, SUM(approve_count) AS approve_count " +
+            "FROM bpm_approver_daily_stats WHERE approver_id = #{approverId} " +
+            "GROUP BY app_type, action")
+    List<ApproverDailyStats> selectTotalsByApprover(@Param("approverId") Long approverId);
+
+    /**
+     * 按天汇总审批人在 [startDate, endDate) 内的审批数
+     */
+    @Select("SELECT stat_date, SUM(approve_count) AS approve_count " +
+            "FROM bpm_approver_daily_stats " +
+            "WHERE approver_id = #{approverId} AND stat_date >= #{startDate} AND stat_date < #{endDate} " +
+            "GROUP BY stat_date")
+    List<ApproverDailyStats> selectDailyByApprover(@Param("approverId") Long approverId,
+            @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+}
@@ -3,10 +3,28 @@ package com.approval.module.approval.mapper;
 import com.approval.module.approval.entity.History;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * 审批历史Mapper
  */
 @Mapper
 public interface HistoryMapper extends BaseMapper<History> {
+
+    /**
+     * 批量查询每个任务最新的一条审批记录
+     */
+    @Select("<script>" +
+            "SELECT history_id, app_id, task_id, node_name, approver_id, approver_name, action, comment, " +
+            "approve_time, next_node, create_time FROM (" +
+            "SELECT h.*, ROW_NUMBER() OVER (PARTITION BY h.task_id ORDER BY h.approve_time DESC, h.history_id DESC) AS rn " +
+            "FROM bpm_history h WHERE h.task_id IN " +
+            "<foreach collection='taskIds' item='taskId' open='(' separator=',' close=')'>#{taskId}</foreach>" +
+            ") latest WHERE latest.rn = 1" +
+            "</script>")
+    List<History> selectLatestByTaskIds(@Param("taskIds") Collection<Long> taskIds);
 }
@@ -1,12 +1,63 @@
 package com.approval.module.approval.mapper;
 
 import com.approval.module.approval.entity.Task;
+import com.approval.module.approval.vo.TaskVo;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.metadata.IPage;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 任务Mapper
  */
 @Mapper
 public interface TaskMapper extends BaseMapper<Task> {
+
+    /**
+     * 分页查询待办任务，联表带出申请单信息与申请人姓名
+     */
+    @Select("SELECT t.task_id, t.app_id, t.node_name, t.create_time, t.finish_time, " +
+            "a.app_no, a.app_type, a.title, u.real_name AS applicant_name " +
+            "FROM bpm_task t " +
+            "LEFT JOIN bpm_application a ON a.app_id = t.app_id AND a.del_flag = 0 " +
+            "LEFT JOIN sys_user u ON u.user_id = a.applicant_id AND u.del_flag = 0 " +
+            "WHERE t.assignee_id = #{assigneeId} AND t.status = 0 " +
+            "ORDER BY t.create_time DESC")
+    IPage<TaskVo> selectTodoTaskPage(Page<TaskVo> page, @Param("assigneeId") Long assigneeId);
+
+    /**
+     * 游标查询待办任务，按 (create_time, task_id) 倒序定位，不统计总数；create_time 为空的任务排在最后
+     */
+    @Select("<script>" +
+            "SELECT t.task_id, t.app_id, t.node_name, t.create_time, t.finish_time, " +
+            "a.app_no, a.app_type, a.title, u.real_name AS applicant_name " +
+            "FROM bpm_task t " +
+            "LEFT JOIN bpm_application a ON a.app_id = t.app_id AND a.del_flag = 0 " +
+            "LEFT JOIN sys_user u ON u.user_id = a.applicant_id AND u.del_flag = 0 " +
+            "WHERE t.assignee_id = #{assigneeId} AND t.status = 0 " +
+            "<if test='cursorId != null and cursorTime != null'>" +
+            "AND (t.create_time &lt; #{cursorTime} OR (t.create_time = #{cursorTime} AND t.task_id &lt; #{cursorId}) " +
+            "OR t.create_time IS NULL) " +
+            "</if>" +
+            "<if test='cursorId != null and cursorTime == null'>" +
+            "AND t.create_time IS NULL AND t.task_id &lt; #{cursorId} " +
+            "</if>" +
+            "ORDER BY t.create_time DESC, t.task_id DESC " +
+            "LIMIT #{limit}" +
+            "</script>")
+    List<TaskVo> selectTodoTasksAfter(@Param("assigneeId") Long assigneeId,
+            @Param("cursorTime") LocalDateTime cursorTime, @Param("cursorId") Long cursorId,
+            @Param("limit") int limit);
+
+    /**
+     * 把待处理任务标记为已处理，返回 0 表示任务已被处理（重复提交）或已删除（申请已撤回）
+     */
+    @Update("UPDATE bpm_task SET status = 1, finish_time = #{finishTime} WHERE task_id = #{taskId} AND status = 0")
+    int finishTask(@Param("taskId") Long taskId, @Param("finishTime") LocalDateTime finishTime);
 }
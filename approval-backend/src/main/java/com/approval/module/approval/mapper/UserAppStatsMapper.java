@@ -0,0 +1,83 @@
+package com.approval.module.approval.mapper;
+
+import com.approval.module.approval.entity.UserAppStats;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+
+/**
+ * 用户申请统计Mapper
+ */
+@Mapper
+public interface UserAppStatsMapper extends BaseMapper<UserAppStats> {
+
+    /**
+     * 提交申请：总数、待审批数、类型计数加一，首次提交时插入统计行
+     */
+    @Insert("INSERT INTO bpm_user_app_stats (user_id, total_count, pending_count, leave_count, reimburse_count, last_submit_time) " +
+            "VALUES (#{userId}, 1, 1, IF(#{appType} = 'leave', 1, 0), IF(#{appType} = 'reimburse', 1, 0), #{submitTime}) " +
+            "ON DUPLICATE KEY UPDATE " +
+            "total_count = total_count + 1, " +
+            "pending_count = pending_count + 1, " +
+            "leave_count = leave_count + VALUES(leave_count), " +
+            "reimburse_count = reimburse_count + VALUES(reimburse_count), " +
+            "last_submit_time = GREATEST(COALESCE(last_submit_time, VALUES(last_submit_time)), VALUES(last_submit_time))")
+    int incrementSubmitted(@Param("userId") Long userId, @Param("appType") String appType,
+            @Param("submitTime") LocalDateTime submitTime);
+
+    /**
+     * 审批通过：通过数加一，并累加该申请的请假天数或报销金额
+     *
+     * @param pendingDelta 申请原先计入待审批数时为 1，否则为 0
+     */
+    @Update("UPDATE bpm_user_app_stats SET " +
+            "pending_count = pending_count - #{pendingDelta}, " +
+            "approved_count = approved_count + 1, " +
+            "total_leave_days = total_leave_days + " +
+            "COALESCE((SELECT days FROM bpm_leave_application WHERE app_id = #{appId}), 0), " +
+            "total_reimburse_amount = total_reimburse_amount + " +
+            "COALESCE((SELECT amount FROM bpm_reimburse_application WHERE app_id = #{appId}), 0) " +
+            "WHERE user_id = #{userId}")
+    int incrementApproved(@Param("userId") Long userId, @Param("appId") Long appId,
+            @Param("pendingDelta") int pendingDelta);
+
+    /**
+     * 审批拒绝：拒绝数加一
+     */
+    @Update("UPDATE bpm_user_app_stats SET pending_count = pending_count - #{pendingDelta}, " +
+            "rejected_count = rejected_count + 1 WHERE user_id = #{userId}")
+    int incrementRejected(@Param("userId") Long userId, @Param("pendingDelta") int pendingDelta);
+
+    /**
+     * 撤回：撤回数加一
+     */
+    @Update("UPDATE bpm_user_app_stats SET pending_count = pending_count - #{pendingDelta}, " +
+            "withdrawn_count = withdrawn_count + 1 WHERE user_id = #{userId}")
+    int incrementWithdrawn(@Param("userId") Long userId, @Param("pendingDelta") int pendingDelta);
+
+    @Delete("DELETE FROM bpm_user_app_stats")
+    int deleteAllStats();
+
+    /**
+     * 从申请主表及详情表全量重算统计
+     */
+    @Insert("INSERT INTO bpm_user_app_stats (user_id, total_count, pending_count, approved_count, rejected_count, " +
+            "withdrawn_count, leave_count, reimburse_count, total_leave_days, total_reimburse_amount, last_submit_time) " +
+            "SELECT a.applicant_id, COUNT(*), " +
+            "SUM(a.status = 1), SUM(a.status = 3), SUM(a.status = 4), SUM(a.status = 5), " +
+            "SUM(a.app_type = 'leave'), SUM(a.app_type = 'reimburse'), " +
+            "COALESCE(SUM(CASE WHEN a.status = 3 THEN l.days END), 0), " +
+            "COALESCE(SUM(CASE WHEN a.status = 3 THEN r.amount END), 0), " +
+            "MAX(a.submit_time) " +
+            "FROM bpm_application a " +
+            "LEFT JOIN bpm_leave_application l ON l.app_id = a.app_id " +
+            "LEFT JOIN bpm_reimburse_application r ON r.app_id = a.app_id " +
+            "WHERE a.del_flag = 0 " +
+            "GROUP BY a.applicant_id")
+    int insertRebuiltStats();
+}
@@ -0,0 +1,13 @@
+package com.approval.module.approval.service;
+
+/**
+ * 申请单号服务接口
+ */
+public interface IAppNoService {
+
+    /**
+     * 分配下一个申请单号
+     * 格式：AP + yyyyMMdd + 6位流水号
+     */
+    String nextAppNo();
+}
@@ -1,5 +1,6 @@
 package com.approval.module.approval.service;
 
+import com.approval.common.result.CursorPage;
 import com.approval.module.approval.dto.CreateLeaveDto;
 import com.approval.module.approval.dto.CreateReimburseDto;
 import com.approval.module.approval.vo.ApproverOptionVo;
@@ -32,6 +33,12 @@ public interface IApplicationService {
     Page<ApplicationVo> getMyApplications(Long userId, Integer pageNum, Integer pageSize,
             String appType, Integer status);
 
+    /**
+     * 游标分页查询我的申请列表（按提交时间、申请ID倒序，不统计总数）
+     */
+    CursorPage<ApplicationVo> getMyApplicationsByCursor(Long userId, String cursor, Integer pageSize,
+            String appType, Integer status);
+
         /**
          * 查询审批历史
          */
@@ -1,5 +1,6 @@
 package com.approval.module.approval.service;
 
+import com.approval.common.result.CursorPage;
 import com.approval.module.approval.dto.ApproveTaskDto;
 import com.approval.module.approval.vo.ApproverDashboardVo;
 import com.approval.module.approval.vo.TaskVo;
@@ -15,6 +16,11 @@ public interface ITaskService {
      */
     Page<TaskVo> getTodoTasks(Long userId, Integer pageNum, Integer pageSize);
 
+    /**
+     * 游标分页查询待办任务（按创建时间、任务ID倒序，不统计总数）
+     */
+    CursorPage<TaskVo> getTodoTasksByCursor(Long userId, String cursor, Integer pageSize);
+
     /**
      * 审批任务
      */
@@ -25,6 +31,11 @@ public interface ITaskService {
      */
     Page<TaskVo> getDoneTasks(Long userId, Integer pageNum, Integer pageSize);
 
+    /**
+     * 游标分页查询已办任务（按完成时间、任务ID倒序，不统计总数）
+     */
+    CursorPage<TaskVo> getDoneTasksByCursor(Long userId, String cursor, Integer pageSize);
+
     /**
      * 获取审批人仪表盘统计
      */
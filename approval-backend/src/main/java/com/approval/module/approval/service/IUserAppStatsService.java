@@ -0,0 +1,36 @@
+package com.approval.module.approval.service;
+
+import com.approval.module.approval.entity.Application;
+import com.approval.module.approval.entity.UserAppStats;
+
+/**
+ * 用户申请统计服务接口
+ * 统计行与申请状态变更在同一事务内维护，调用方需处于事务中
+ */
+public interface IUserAppStatsService {
+
+    /**
+     * 申请提交后调用
+     */
+    void onSubmitted(Application application);
+
+    /**
+     * 申请进入终态（通过、拒绝、撤回）后调用，按申请当前状态累加
+     * 调用方须已通过条件更新完成状态迁移（影响行数为 1），保证每个申请只累加一次
+     *
+     * @param previousStatus 迁移前的状态，只有待审批（1）计入待审批数
+     */
+    void onFinished(Application application, Integer previousStatus);
+
+    /**
+     * 查询用户统计，无申请记录时返回 null
+     */
+    UserAppStats getByUserId(Long userId);
+
+    /**
+     * 从业务表全量重建统计
+     *
+     * @return 重建的用户数
+     */
+    int rebuildAll();
+}
@@ -0,0 +1,111 @@
+package com.approval.module.approval.service.impl;
+
+import com.approval.common.exception.BusinessException;
+import com.approval.module.approval.mapper.AppNoSequenceMapper;
+import com.approval.module.approval.mapper.ApplicationMapper;
+import com.approval.module.approval.service.IAppNoService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 申请单号服务实现
+ * 按天从 bpm_app_no_seq 预占一段流水号，段内通过 AtomicLong 无锁分配，跨天自动切换新号段
+ */
+@Service
+public class AppNoServiceImpl implements IAppNoService {
+
+    private static final String APP_NO_PREFIX = "AP";
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final long SEGMENT_STEP = 100L;
+    private static final long MAX_DAILY_SERIAL = 999_999L;
+
+    private final AppNoSequenceMapper appNoSequenceMapper;
+    private final ApplicationMapper applicationMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile Segment segment;
+
+    public AppNoServiceImpl(AppNoSequenceMapper appNoSequenceMapper,
+            ApplicationMapper applicationMapper,
+            PlatformTransactionManager transactionManager) {
+        this.appNoSequenceMapper = appNoSequenceMapper;
+        this.applicationMapper = applicationMapper;
+        // 号段分配使用独立事务，避免业务回滚导致号段被重复分配
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public String nextAppNo() {
+        while (true) {
+            String bizDate = LocalDate.now().format(DATE_FORMATTER);
+            Segment current = segment;
+            if (current != null && current.bizDate.equals(bizDate)) {
+                long serial = current.cursor.incrementAndGet();
+                if (serial <= current.maxSerial) {
+                    return APP_NO_PREFIX + bizDate + String.format("%06d", serial);
+                }
+            }
+            refreshSegment(current);
+        }
+    }
+
+    private synchronized void refreshSegment(Segment expired) {
+        if (segment != expired) {
+            // 其他线程已完成号段切换
+            return;
+        }
+        segment = allocateSegment(LocalDate.now().format(DATE_FORMATTER));
+    }
+
+    private Segment allocateSegment(String bizDate) {
+        Long start = transactionTemplate.execute(status -> {
+            Long maxSerial = appNoSequenceMapper.selectMaxSerialForUpdate(bizDate);
+            if (maxSerial == null) {
+                appNoSequenceMapper.insertIgnore(bizDate, resolveInitialSerial(bizDate));
+                maxSerial = appNoSequenceMapper.selectMaxSerialForUpdate(bizDate);
+            }
+            appNoSequenceMapper.updateMaxSerial(bizDate, maxSerial + SEGMENT_STEP);
+            return maxSerial;
+        });
+        if (start == null || start >= MAX_DAILY_SERIAL) {
+            throw new BusinessException("当日申请单号已用尽，请联系管理员");
+        }
+        return new Segment(bizDate, start, Math.min(start + SEGMENT_STEP, MAX_DAILY_SERIAL));
+    }
+
+    /**
+     * 当天首次分配时，从已有单号续接，兼容号段表上线前生成的单号
+     */
+    private long resolveInitialSerial(String bizDate) {
+        String prefix = APP_NO_PREFIX + bizDate;
+        String maxAppNo = applicationMapper.selectMaxAppNoByPrefix(prefix);
+        if (maxAppNo == null || maxAppNo.length() <= prefix.length()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(maxAppNo.substring(prefix.length()));
+        } catch (NumberFormatException ex) {
+            return 0L;
+        }
+    }
+
+    private static final class Segment {
+
+        private final String bizDate;
+        private final AtomicLong cursor;
+        private final long maxSerial;
+
+        private Segment(String bizDate, long start, long maxSerial) {
+            this.bizDate = bizDate;
+            this.cursor = new AtomicLong(start);
+            this.maxSerial = maxSerial;
+        }
+    }
+}
@@ -1,28 +1,37 @@
 package com.approval.module.approval.service.impl;
 
 import com.approval.common.exception.BusinessException;
+import com.approval.common.result.CursorPage;
+import com.approval.common.utils.CursorQueryUtils;
 import com.approval.module.approval.dto.CreateLeaveDto;
 import com.approval.module.approval.dto.CreateReimburseDto;
 import com.approval.module.approval.entity.Application;
 import com.approval.module.approval.entity.LeaveApplication;
 import com.approval.module.approval.entity.ReimburseApplication;
+import com.approval.module.approval.entity.UserAppStats;
 import com.approval.module.approval.mapper.ApplicationMapper;
 import com.approval.module.approval.mapper.LeaveApplicationMapper;
 import com.approval.module.approval.mapper.ReimburseApplicationMapper;
+import com.approval.module.approval.service.IAppNoService;
 import com.approval.module.approval.service.IApplicationService;
+import com.approval.module.approval.service.IUserAppStatsService;
 import com.approval.module.approval.vo.ApproverOptionVo;
 import com.approval.module.approval.vo.ApplicationHistoryVo;
 import com.approval.module.approval.vo.ApplicationSummaryVo;
 import com.approval.module.approval.vo.ApplicationVo;
+import com.approval.module.system.cache.ApproverIndex;
+import com.approval.module.system.cache.DeptCache;
+import com.approval.module.system.cache.PostCache;
+import com.approval.module.system.cache.UserCache;
 import com.approval.module.system.entity.Dept;
 import com.approval.module.system.entity.Post;
 import com.approval.module.system.entity.User;
-import com.approval.module.system.mapper.DeptMapper;
-import com.approval.module.system.mapper.PermissionMapper;
-import com.approval.module.system.mapper.PostMapper;
 import com.approval.module.system.mapper.UserMapper;
+import com.approval.module.system.service.IFileService;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,14 +39,14 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -53,67 +62,68 @@ public class ApplicationServiceImpl implements IApplicationService {
     private final UserMapper userMapper;
     private final com.approval.module.approval.mapper.TaskMapper taskMapper;
     private final com.approval.module.approval.mapper.HistoryMapper historyMapper;
-    private final DeptMapper deptMapper;
-    private final PostMapper postMapper;
-    private final PermissionMapper permissionMapper;
+    private final IAppNoService appNoService;
+    private final IUserAppStatsService userAppStatsService;
+    private final DeptCache deptCache;
+    private final PostCache postCache;
+    private final ApproverIndex approverIndex;
+    private final UserCache userCache;
+    private final IFileService fileService;
+    private final MeterRegistry meterRegistry;
 
     private static final int STATUS_APPROVED = 3;
     private static final List<Integer> HISTORY_STATUSES = Arrays.asList(STATUS_APPROVED, 4, 5);
-    private static final String APPROVAL_PERMISSION_CODE = "APPROVAL_REVIEW";
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Long createLeaveApplication(CreateLeaveDto dto, Long userId) {
-        // 1. 获取用户信息
-        User user = userMapper.selectById(userId);
-        if (user == null) {
-            throw new BusinessException("用户不存在");
-        }
-        if (user.getDeptId() == null) {
-            throw new BusinessException("您尚未分配部门，暂时无法提交申请");
-        }
-
-        User approver = validateApprover(user, dto.getApproverId());
-        Dept dept = deptMapper.selectById(user.getDeptId());
-        String currentNode = dept != null ? dept.getDeptName() + "审批" : "部门审批";
-
-        // 2. 创建申请主表
-        Application application = new Application();
-        application.setAppNo(generateAppNo());
-        application.setAppType("leave");
-        application.setTitle(
-                "请假申请-" + (dto.getReason().length() > 10 ? dto.getReason().substring(0, 10) + "..." : dto.getReason()));
-        application.setApplicantId(userId);
-        application.setDeptId(user.getDeptId());
-        application.setStatus(1); // 待审批
-        application.setCurrentNode(currentNode);
-        application.setSubmitTime(LocalDateTime.now());
-
-        applicationMapper.insert(application);
-
-        // 3. 创建请假详情
-        LeaveApplication leave = new LeaveApplication();
-        leave.setAppId(application.getAppId());
-        leave.setLeaveType(dto.getLeaveType());
-        leave.setStartTime(dto.getStartTime());
-        leave.setEndTime(dto.getEndTime());
-        leave.setDays(dto.getDays());
-        leave.setReason(dto.getReason());
-        leave.setAttachment(dto.getAttachment());
-
-        leaveApplicationMapper.insert(leave);
-
-        // 4. 创建审批任务
-        createTask(application, approver.getUserId(), approver.getRealName());
-
-        return application.getAppId();
+        return submit("leave", "请假申请-", dto.getReason(), dto.getApproverId(), userId, appId -> {
+            LeaveApplication leave = new LeaveApplication();
+            leave.setAppId(appId);
+            leave.setLeaveType(dto.getLeaveType());
+            leave.setStartTime(dto.getStartTime());
+            leave.setEndTime(dto.getEndTime());
+            leave.setDays(dto.getDays());
+            leave.setReason(dto.getReason());
+            leave.setAttachment(dto.getAttachment());
+            leaveApplicationMapper.insert(leave);
+            fileService.bindAttachments(dto.getAttachment(), "leave", appId, userId);
+        });
     }
 
     @Override
     @Transactional(rollbackFor = Exception.class)
     public Long createReimburseApplication(CreateReimburseDto dto, Long userId) {
-        // 1. 获取用户信息
-        User user = userMapper.selectById(userId);
+        return submit("reimburse", "报销申请-", dto.getReason(), dto.getApproverId(), userId, appId -> {
+            ReimburseApplication reimburse = new ReimburseApplication();
+            reimburse.setAppId(appId);
+            reimburse.setExpenseType(dto.getExpenseType());
+            reimburse.setAmount(dto.getAmount());
+            reimburse.setReason(dto.getReason());
+            reimburse.setInvoiceAttachment(dto.getInvoiceAttachment());
+            reimburse.setOccurDate(dto.getOccurDate());
+            reimburseApplicationMapper.insert(reimburse);
+            fileService.bindAttachments(dto.getInvoiceAttachment(), "reimburse", appId, userId);
+        });
+    }
+
+    /**
+     * 申请提交流水线：解析提交上下文 -> 写申请主表 -> 写申请详情 -> 写审批任务
+     * 申请人、部门、审批人均来自缓存；各步骤耗时记录到 approval.submit 指标（按 type、step 区分）
+     */
+    private Long submit(String appType, String titlePrefix, String reason, Long approverId, Long userId,
+            Consumer<Long> detailWriter) {
+        SubmitContext context = timed(appType, "context", () -> resolveSubmitContext(userId, approverId));
+        Application application = timed(appType, "application",
+                () -> insertApplication(appType, titlePrefix + abbreviate(reason), context));
+        timedRun(appType, "detail", () -> detailWriter.accept(application.getAppId()));
+        timedRun(appType, "task",
+                () -> createTask(application, context.approver().getUserId(), context.approver().getRealName()));
+        return application.getAppId();
+    }
+
+    private SubmitContext resolveSubmitContext(Long userId, Long approverId) {
+        User user = userCache.get(userId);
         if (user == null) {
             throw new BusinessException("用户不存在");
         }
@@ -121,39 +131,52 @@ public class ApplicationServiceImpl implements IApplicationService {
             throw new BusinessException("您尚未分配部门，暂时无法提交申请");
         }
 
-        User approver = validateApprover(user, dto.getApproverId());
-        Dept dept = deptMapper.selectById(user.getDeptId());
+        ApproverIndex.Approver approver = validateApprover(user, approverId);
+        Dept dept = deptCache.get(user.getDeptId());
         String currentNode = dept != null ? dept.getDeptName() + "审批" : "部门审批";
+        return new SubmitContext(user, approver, currentNode);
+    }
 
-        // 2. 创建申请主表
+    private Application insertApplication(String appType, String title, SubmitContext context) {
         Application application = new Application();
-        application.setAppNo(generateAppNo());
-        application.setAppType("reimburse");
-        application.setTitle(
-                "报销申请-" + (dto.getReason().length() > 10 ? dto.getReason().substring(0, 10) + "..." : dto.getReason()));
-        application.setApplicantId(userId);
-        application.setDeptId(user.getDeptId());
+        application.setAppNo(appNoService.nextAppNo());
+        application.setAppType(appType);
+        application.setTitle(title);
+        application.setApplicantId(context.applicant().getUserId());
+        application.setDeptId(context.applicant().getDeptId());
         application.setStatus(1); // 待审批
-        application.setCurrentNode(currentNode);
+        application.setCurrentNode(context.currentNode());
         application.setSubmitTime(LocalDateTime.now());
 
         applicationMapper.insert(application);
+        userAppStatsService.onSubmitted(application);
+        return application;
+    }
 
-        // 3. 创建报销详情
-        ReimburseApplication reimburse = new ReimburseApplication();
-        reimburse.setAppId(application.getAppId());
-        reimburse.setExpenseType(dto.getExpenseType());
-        reimburse.setAmount(dto.getAmount());
-        reimburse.setReason(dto.getReason());
-        reimburse.setInvoiceAttachment(dto.getInvoiceAttachment());
-        reimburse.setOccurDate(dto.getOccurDate());
+    private String abbreviate(String reason) {
+        return reason.length() > 10 ? reason.substring(0, 10) + "..." : reason;
+    }
 
-        reimburseApplicationMapper.insert(reimburse);
+    private <T> T timed(String appType, String step, Supplier<T> action) {
+        return submitTimer(appType, step).record(action);
+    }
 
-        // 4. 创建审批任务
-        createTask(application, approver.getUserId(), approver.getRealName());
+    private void timedRun(String appType, String step, Runnable action) {
+        submitTimer(appType, step).record(action);
+    }
 
-        return application.getAppId();
+    private Timer submitTimer(String appType, String step) {
+        return Timer.builder("approval.submit")
+                .description("申请提交各步骤耗时")
+                .tag("type", appType)
+                .tag("step", step)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 申请提交上下文
+     */
+    private record SubmitContext(User applicant, ApproverIndex.Approver approver, String currentNode) {
     }
 
     private void createTask(Application app, Long assigneeId, String assigneeName) {
@@ -167,7 +190,7 @@ public class ApplicationServiceImpl implements IApplicationService {
         taskMapper.insert(task);
     }
 
-    private User validateApprover(User applicant, Long approverId) {
+    private ApproverIndex.Approver validateApprover(User applicant, Long approverId) {
         if (approverId == null) {
             throw new BusinessException("请选择审批人");
         }
@@ -175,24 +198,23 @@ public class ApplicationServiceImpl implements IApplicationService {
             throw new BusinessException("申请人不能审批自己的申请");
         }
 
-        User approver = userMapper.selectById(approverId);
-        if (approver == null || approver.getStatus() == null || approver.getStatus() == 0) {
+        ApproverIndex.Approver approver = approverIndex.getApprover(approverId);
+        if (approver != null && Objects.equals(applicant.getDeptId(), approver.getDeptId())) {
+            return approver;
+        }
+
+        // 不在索引中或部门不符，查库给出具体原因
+        User user = userMapper.selectById(approverId);
+        if (user == null || user.getStatus() == null || user.getStatus() == 0) {
             throw new BusinessException("审批人无效或已停用");
         }
-        if (approver.getDeptId() == null || !Objects.equals(applicant.getDeptId(), approver.getDeptId())) {
+        if (user.getDeptId() == null || !Objects.equals(applicant.getDeptId(), user.getDeptId())) {
             throw new BusinessException("审批人必须与申请人属于同一部门");
         }
-        if (approver.getPostId() == null) {
+        if (user.getPostId() == null) {
             throw new BusinessException("审批人尚未分配岗位，无法处理审批");
         }
-
-        List<String> permissions = permissionMapper.selectPermissionCodesByPostId(approver.getPostId());
-        boolean hasApprovalPermission = permissions != null
-                && permissions.stream().anyMatch(APPROVAL_PERMISSION_CODE::equals);
-        if (!hasApprovalPermission) {
-            throw new BusinessException("所选人员暂无审批权限");
-        }
-        return approver;
+        throw new BusinessException("所选人员暂无审批权限");
     }
 
     @Override
@@ -207,7 +229,36 @@ public class ApplicationServiceImpl implements IApplicationService {
                 .orderByDesc(Application::getSubmitTime);
 
         Page<Application> appPage = applicationMapper.selectPage(page, wrapper);
-        List<Application> records = appPage.getRecords();
+
+        Page<ApplicationVo> voPage = new Page<>(appPage.getCurrent(), appPage.getSize(), appPage.getTotal());
+        voPage.setRecords(toMyApplicationVos(userId, appPage.getRecords()));
+        return voPage;
+    }
+
+    @Override
+    public CursorPage<ApplicationVo> getMyApplicationsByCursor(Long userId, String cursor, Integer pageSize,
+            String appType, Integer status) {
+        int size = CursorPage.normalizeSize(pageSize);
+
+        LambdaQueryWrapper<Application> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(Application::getApplicantId, userId)
+                .eq(appType != null && !appType.isEmpty(), Application::getAppType, appType)
+                .eq(status != null, Application::getStatus, status);
+        CursorQueryUtils.seekDesc(wrapper, Application::getSubmitTime, Application::getAppId,
+                CursorPage.Cursor.decode(cursor), size);
+
+        return CursorPage.of(applicationMapper.selectList(wrapper), size,
+                app -> new CursorPage.Cursor(app.getSubmitTime(), app.getAppId()),
+                records -> toMyApplicationVos(userId, records));
+    }
+
+    /**
+     * 批量补全本人申请的部门名称与请假/报销类型
+     */
+    private List<ApplicationVo> toMyApplicationVos(Long userId, List<Application> records) {
+        if (records.isEmpty()) {
+            return Collections.emptyList();
+        }
 
         List<Long> leaveAppIds = records.stream()
                 .filter(app -> "leave".equals(app.getAppType()))
@@ -232,19 +283,16 @@ public class ApplicationServiceImpl implements IApplicationService {
                         .stream()
                         .collect(Collectors.toMap(ReimburseApplication::getAppId, reimburse -> reimburse));
 
-        // 转换为VO
-        Page<ApplicationVo> voPage = new Page<>(appPage.getCurrent(), appPage.getSize(), appPage.getTotal());
-
         // 批量获取申请人信息
         User user = userMapper.selectById(userId);
         String deptName = "";
         if (user != null && user.getDeptId() != null) {
-            Dept userDept = deptMapper.selectById(user.getDeptId());
+            Dept userDept = deptCache.get(user.getDeptId());
             deptName = userDept != null ? userDept.getDeptName() : "";
         }
         final String finalDeptName = deptName;
 
-        voPage.setRecords(records.stream().map(app -> {
+        return records.stream().map(app -> {
             ApplicationVo vo = new ApplicationVo();
             org.springframework.beans.BeanUtils.copyProperties(app, vo);
             vo.setApplicantName(user != null ? user.getRealName() : "");
@@ -263,9 +311,7 @@ public class ApplicationServiceImpl implements IApplicationService {
             }
 
             return vo;
-        }).collect(Collectors.toList()));
-
-        return voPage;
+        }).collect(Collectors.toList());
     }
 
     @Override
@@ -275,99 +321,30 @@ public class ApplicationServiceImpl implements IApplicationService {
         long current = (pageNum == null || pageNum <= 0) ? 1L : pageNum;
         long size = (pageSize == null || pageSize <= 0) ? 10L : pageSize;
 
-        LambdaQueryWrapper<Application> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(Application::getApplicantId, userId)
-                .ge(startTime != null, Application::getSubmitTime, startTime)
-                .le(endTime != null, Application::getSubmitTime, endTime)
-                .orderByDesc(Application::getSubmitTime);
-
-        if (status != null) {
-            wrapper.eq(Application::getStatus, status);
-        } else {
-            wrapper.in(Application::getStatus, HISTORY_STATUSES);
-        }
-
-        if (appType != null && !appType.isEmpty()) {
-            wrapper.eq(Application::getAppType, appType);
-        }
-
-        List<Application> applications = applicationMapper.selectList(wrapper);
-        if (applications.isEmpty()) {
-            return new Page<>(current, size, 0);
+        Page<ApplicationHistoryVo> page = new Page<>(current, size);
+        // LATERAL 子查询无法被 count 优化器解析，直接对原查询计数
+        page.setOptimizeCountSql(false);
+        applicationMapper.selectHistoryPage(page, userId,
+                appType != null && !appType.isEmpty() ? appType : null,
+                startTime, endTime,
+                approverName != null && !approverName.isEmpty() ? approverName : null,
+                leaveType, expenseType, status, HISTORY_STATUSES);
+        if (page.getRecords().isEmpty()) {
+            return page;
         }
 
         User applicant = userMapper.selectById(userId);
         String deptName = "";
         if (applicant != null && applicant.getDeptId() != null) {
-            com.approval.module.system.entity.Dept dept = deptMapper.selectById(applicant.getDeptId());
+            Dept dept = deptCache.get(applicant.getDeptId());
             deptName = dept != null ? dept.getDeptName() : "";
         }
 
-        List<ApplicationHistoryVo> historyVos = new ArrayList<>();
-        for (Application application : applications) {
-            LeaveApplication leaveDetail = null;
-            ReimburseApplication reimburseDetail = null;
-
-            if ("leave".equals(application.getAppType())) {
-                leaveDetail = leaveApplicationMapper.selectOne(
-                        new LambdaQueryWrapper<LeaveApplication>().eq(LeaveApplication::getAppId, application.getAppId()));
-                if (leaveType != null && (leaveDetail == null || !leaveType.equals(leaveDetail.getLeaveType()))) {
-                    continue;
-                }
-            }
-
-            if ("reimburse".equals(application.getAppType())) {
-                reimburseDetail = reimburseApplicationMapper.selectOne(
-                        new LambdaQueryWrapper<ReimburseApplication>().eq(ReimburseApplication::getAppId, application.getAppId()));
-                if (expenseType != null && (reimburseDetail == null || !expenseType.equals(reimburseDetail.getExpenseType()))) {
-                    continue;
-                }
-            }
-
-            com.approval.module.approval.entity.History latestHistory = historyMapper.selectOne(
-                    new LambdaQueryWrapper<com.approval.module.approval.entity.History>()
-                            .eq(com.approval.module.approval.entity.History::getAppId, application.getAppId())
-                            .orderByDesc(com.approval.module.approval.entity.History::getApproveTime)
-                            .last("limit 1"));
-
-            if (approverName != null && !approverName.isEmpty()) {
-                if (latestHistory == null || latestHistory.getApproverName() == null
-                        || !latestHistory.getApproverName().contains(approverName)) {
-                    continue;
-                }
-            }
-
-            ApplicationHistoryVo vo = ApplicationHistoryVo.builder()
-                    .appId(application.getAppId())
-                    .appNo(application.getAppNo())
-                    .appType(application.getAppType())
-                    .title(application.getTitle())
-                    .status(application.getStatus())
-                    .applicantName(applicant != null ? applicant.getRealName() : "")
-                    .deptName(deptName)
-                    .currentNode(application.getCurrentNode())
-                    .approverName(latestHistory != null ? latestHistory.getApproverName() : null)
-                    .action(latestHistory != null ? latestHistory.getAction() : null)
-                    .comment(latestHistory != null ? latestHistory.getComment() : null)
-                    .leaveType(leaveDetail != null ? leaveDetail.getLeaveType() : null)
-                    .leaveDays(leaveDetail != null ? leaveDetail.getDays() : null)
-                    .expenseType(reimburseDetail != null ? reimburseDetail.getExpenseType() : null)
-                    .expenseAmount(reimburseDetail != null ? reimburseDetail.getAmount() : null)
-                    .submitTime(application.getSubmitTime())
-                    .approveTime(latestHistory != null ? latestHistory.getApproveTime() : null)
-                    .finishTime(application.getFinishTime())
-                    .build();
-            historyVos.add(vo);
+        String applicantName = applicant != null ? applicant.getRealName() : "";
+        for (ApplicationHistoryVo vo : page.getRecords()) {
+            vo.setApplicantName(applicantName);
+            vo.setDeptName(deptName);
         }
-
-        int fromIndex = (int) Math.max((current - 1) * size, 0);
-        int toIndex = Math.min((int) (fromIndex + size), historyVos.size());
-        List<ApplicationHistoryVo> records = fromIndex >= historyVos.size()
-                ? Collections.emptyList()
-                : historyVos.subList(fromIndex, toIndex);
-
-        Page<ApplicationHistoryVo> page = new Page<>(current, size, historyVos.size());
-        page.setRecords(records);
         return page;
     }
 
@@ -408,68 +385,21 @@ public class ApplicationServiceImpl implements IApplicationService {
             throw new BusinessException("用户不存在");
         }
 
-        List<Application> applications = applicationMapper.selectList(
-            new LambdaQueryWrapper<Application>().eq(Application::getApplicantId, userId));
-
-        long totalCount = applications.size();
-        long pendingCount = applications.stream().filter(app -> Integer.valueOf(1).equals(app.getStatus())).count();
-        long approvedCount = applications.stream().filter(app -> Integer.valueOf(STATUS_APPROVED).equals(app.getStatus())).count();
-        long rejectedCount = applications.stream().filter(app -> Integer.valueOf(4).equals(app.getStatus())).count();
-        long withdrawnCount = applications.stream().filter(app -> Integer.valueOf(5).equals(app.getStatus())).count();
-
-        List<Long> leaveAppIds = applications.stream()
-            .filter(app -> "leave".equals(app.getAppType()))
-            .map(Application::getAppId)
-            .collect(Collectors.toList());
-        List<Long> approvedLeaveAppIds = applications.stream()
-            .filter(app -> "leave".equals(app.getAppType()) && Integer.valueOf(STATUS_APPROVED).equals(app.getStatus()))
-            .map(Application::getAppId)
-            .collect(Collectors.toList());
-        List<Long> reimburseAppIds = applications.stream()
-            .filter(app -> "reimburse".equals(app.getAppType()))
-            .map(Application::getAppId)
-            .collect(Collectors.toList());
-        List<Long> approvedReimburseAppIds = applications.stream()
-            .filter(app -> "reimburse".equals(app.getAppType()) && Integer.valueOf(STATUS_APPROVED).equals(app.getStatus()))
-            .map(Application::getAppId)
-            .collect(Collectors.toList());
-
-        long leaveCount = leaveAppIds.size();
-        long reimburseCount = reimburseAppIds.size();
-
-        BigDecimal totalLeaveDays = approvedLeaveAppIds.isEmpty() ? BigDecimal.ZERO :
-            leaveApplicationMapper.selectList(new LambdaQueryWrapper<LeaveApplication>()
-                .in(LeaveApplication::getAppId, approvedLeaveAppIds))
-                .stream()
-                .map(LeaveApplication::getDays)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BigDecimal totalReimburseAmount = approvedReimburseAppIds.isEmpty() ? BigDecimal.ZERO :
-            reimburseApplicationMapper.selectList(new LambdaQueryWrapper<ReimburseApplication>()
-                .in(ReimburseApplication::getAppId, approvedReimburseAppIds))
-                .stream()
-                .map(ReimburseApplication::getAmount)
-                .filter(Objects::nonNull)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // 统计行随申请提交、审批、撤回增量维护，这里只需按主键读取一行
+        UserAppStats stats = userAppStatsService.getByUserId(userId);
+        if (stats == null) {
+            stats = new UserAppStats();
+        }
 
+        long totalCount = nullToZero(stats.getTotalCount());
+        long approvedCount = nullToZero(stats.getApprovedCount());
         BigDecimal approvalRate = totalCount == 0 ? BigDecimal.ZERO
             : BigDecimal.valueOf(approvedCount)
                 .multiply(BigDecimal.valueOf(100))
                 .divide(BigDecimal.valueOf(totalCount), 2, RoundingMode.HALF_UP);
 
-        LocalDateTime lastSubmitTime = applications.stream()
-            .map(Application::getSubmitTime)
-            .filter(Objects::nonNull)
-            .max(LocalDateTime::compareTo)
-            .orElse(null);
-
-        com.approval.module.system.entity.Dept dept = user.getDeptId() != null
-            ? deptMapper.selectById(user.getDeptId())
-            : null;
-        com.approval.module.system.entity.Post post = user.getPostId() != null
-            ? postMapper.selectById(user.getPostId())
-            : null;
+        Dept dept = deptCache.get(user.getDeptId());
+        Post post = postCache.get(user.getPostId());
 
         return ApplicationSummaryVo.builder()
             .userId(userId)
@@ -477,19 +407,23 @@ public class ApplicationServiceImpl implements IApplicationService {
             .deptName(dept != null ? dept.getDeptName() : "")
             .postName(post != null ? post.getPostName() : "")
             .totalCount(totalCount)
-            .pendingCount(pendingCount)
+            .pendingCount(nullToZero(stats.getPendingCount()))
             .approvedCount(approvedCount)
-            .rejectedCount(rejectedCount)
-            .withdrawnCount(withdrawnCount)
-            .leaveCount(leaveCount)
-            .reimburseCount(reimburseCount)
-            .totalLeaveDays(totalLeaveDays)
-            .totalReimburseAmount(totalReimburseAmount)
+            .rejectedCount(nullToZero(stats.getRejectedCount()))
+            .withdrawnCount(nullToZero(stats.getWithdrawnCount()))
+            .leaveCount(nullToZero(stats.getLeaveCount()))
+            .reimburseCount(nullToZero(stats.getReimburseCount()))
+            .totalLeaveDays(stats.getTotalLeaveDays() != null ? stats.getTotalLeaveDays() : BigDecimal.ZERO)
+            .totalReimburseAmount(stats.getTotalReimburseAmount() != null ? stats.getTotalReimburseAmount() : BigDecimal.ZERO)
             .approvalRate(approvalRate)
-            .lastSubmitTime(lastSubmitTime)
+            .lastSubmitTime(stats.getLastSubmitTime())
             .build();
         }
 
+    private long nullToZero(Long value) {
+        return value != null ? value : 0L;
+    }
+
     @Override
     public List<ApproverOptionVo> getDeptApprovers(Long userId, Long deptId) {
         User currentUser = userMapper.selectById(userId);
@@ -502,40 +436,19 @@ public class ApplicationServiceImpl implements IApplicationService {
             return Collections.emptyList();
         }
 
-        List<User> candidates = userMapper.selectList(new LambdaQueryWrapper<User>()
-                .eq(User::getDeptId, targetDeptId)
-                .eq(User::getStatus, 1)
-                .isNotNull(User::getPostId));
+        List<ApproverIndex.Approver> candidates = approverIndex.getDeptApprovers(targetDeptId);
         if (candidates.isEmpty()) {
             return Collections.emptyList();
         }
 
-        List<Long> postIds = candidates.stream()
-                .map(User::getPostId)
-                .filter(Objects::nonNull)
-                .distinct()
-                .collect(Collectors.toList());
-
-        Map<Long, Post> postMap = postIds.isEmpty()
-                ? Collections.emptyMap()
-                : postMapper.selectBatchIds(postIds).stream()
-                        .filter(Objects::nonNull)
-                .collect(Collectors.toMap(Post::getPostId, post -> post, (first, second) -> first));
-
-        Map<Long, List<String>> permissionMap = new HashMap<>();
-        for (Long postId : postIds) {
-            List<String> codes = permissionMapper.selectPermissionCodesByPostId(postId);
-            permissionMap.put(postId, codes != null ? codes : Collections.emptyList());
-        }
+        Map<Long, Post> postMap = postCache.getAll(candidates.stream()
+                .map(ApproverIndex.Approver::getPostId)
+                .collect(Collectors.toSet()));
 
-        Dept dept = deptMapper.selectById(targetDeptId);
+        Dept dept = deptCache.get(targetDeptId);
         String deptName = dept != null ? dept.getDeptName() : null;
 
         return candidates.stream()
-                .filter(candidate -> {
-                    List<String> codes = permissionMap.get(candidate.getPostId());
-                    return codes != null && codes.contains(APPROVAL_PERMISSION_CODE);
-                })
                 .map(candidate -> {
                     ApproverOptionVo vo = new ApproverOptionVo();
                     vo.setUserId(candidate.getUserId());
@@ -569,8 +482,12 @@ public class ApplicationServiceImpl implements IApplicationService {
             throw new BusinessException("只能撤回待审批状态的申请");
         }
 
+        // 条件更新：与并发的审批互斥，只有迁移成功的一方累加统计
+        if (applicationMapper.transitionStatus(appId, 1, 5, null) == 0) {
+            throw new BusinessException("只能撤回待审批状态的申请");
+        }
         application.setStatus(5); // 已撤回
-        applicationMapper.updateById(application);
+        userAppStatsService.onFinished(application, 1);
 
         // 删除待办任务
         taskMapper.delete(
@@ -578,16 +495,4 @@ public class ApplicationServiceImpl implements IApplicationService {
                         .eq(com.approval.module.approval.entity.Task::getAppId, appId)
                         .eq(com.approval.module.approval.entity.Task::getStatus, 0));
     }
-
-    /**
-     * 生成申请单号
-     * 格式：AP + yyyyMMdd + 6位流水号
-     */
-    private String generateAppNo() {
-        String date = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        // 简化处理，实际应该查询当天最大流水号
-        long count = applicationMapper.selectCount(null);
-        String serial = String.format("%06d", count + 1);
-        return "AP" + date + serial;
-    }
 }
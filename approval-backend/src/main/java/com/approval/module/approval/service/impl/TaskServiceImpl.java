@@ -1,23 +1,28 @@
 package com.approval.module.approval.service.impl;
 
 import com.approval.common.exception.BusinessException;
+import com.approval.common.result.CursorPage;
+import com.approval.common.utils.CursorQueryUtils;
 import com.approval.module.approval.dto.ApproveTaskDto;
 import com.approval.module.approval.entity.Application;
+import com.approval.module.approval.entity.ApproverDailyStats;
 import com.approval.module.approval.entity.History;
 import com.approval.module.approval.entity.Task;
 import com.approval.module.approval.mapper.ApplicationMapper;
+import com.approval.module.approval.mapper.ApproverDailyStatsMapper;
 import com.approval.module.approval.mapper.HistoryMapper;
 import com.approval.module.approval.mapper.TaskMapper;
 import com.approval.module.approval.service.ITaskService;
+import com.approval.module.approval.service.IUserAppStatsService;
 import com.approval.module.approval.vo.ApprovalTypeStatVo;
 import com.approval.module.approval.vo.ApproverDashboardVo;
 import com.approval.module.approval.vo.DailyApprovalStatVo;
 import com.approval.module.approval.vo.TaskVo;
+import com.approval.module.system.cache.DeptCache;
+import com.approval.module.system.cache.PostCache;
 import com.approval.module.system.entity.Dept;
 import com.approval.module.system.entity.Post;
 import com.approval.module.system.entity.User;
-import com.approval.module.system.mapper.DeptMapper;
-import com.approval.module.system.mapper.PostMapper;
 import com.approval.module.system.mapper.UserMapper;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
@@ -35,6 +40,7 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -48,44 +54,28 @@ public class TaskServiceImpl implements ITaskService {
     private final TaskMapper taskMapper;
     private final ApplicationMapper applicationMapper;
     private final HistoryMapper historyMapper;
+    private final ApproverDailyStatsMapper approverDailyStatsMapper;
     private final UserMapper userMapper;
-    private final DeptMapper deptMapper;
-    private final PostMapper postMapper;
+    private final IUserAppStatsService userAppStatsService;
+    private final DeptCache deptCache;
+    private final PostCache postCache;
 
     @Override
     public Page<TaskVo> getTodoTasks(Long userId, Integer pageNum, Integer pageSize) {
-        Page<Task> page = new Page<>(pageNum, pageSize);
-
-        LambdaQueryWrapper<Task> wrapper = new LambdaQueryWrapper<>();
-        wrapper.eq(Task::getAssigneeId, userId)
-                .eq(Task::getStatus, 0) // 待处理
-                .orderByDesc(Task::getCreateTime);
-
-        Page<Task> taskPage = taskMapper.selectPage(page, wrapper);
-
-        Page<TaskVo> voPage = new Page<>(taskPage.getCurrent(), taskPage.getSize(), taskPage.getTotal());
-
-        voPage.setRecords(taskPage.getRecords().stream().map(task -> {
-            TaskVo vo = new TaskVo();
-            org.springframework.beans.BeanUtils.copyProperties(task, vo);
-
-            // 查询申请信息
-            Application app = applicationMapper.selectById(task.getAppId());
-            if (app != null) {
-                vo.setAppNo(app.getAppNo());
-                vo.setAppType(app.getAppType());
-                vo.setTitle(app.getTitle());
-
-                User applicant = userMapper.selectById(app.getApplicantId());
-                if (applicant != null) {
-                    vo.setApplicantName(applicant.getRealName());
-                }
-            }
-
-            return vo;
-        }).collect(java.util.stream.Collectors.toList()));
+        Page<TaskVo> page = new Page<>(pageNum, pageSize);
+        // 申请单号、标题、申请人姓名由联表查询一次带出，查询次数与分页大小无关
+        taskMapper.selectTodoTaskPage(page, userId);
+        return page;
+    }
 
-        return voPage;
+    @Override
+    public CursorPage<TaskVo> getTodoTasksByCursor(Long userId, String cursor, Integer pageSize) {
+        int size = CursorPage.normalizeSize(pageSize);
+        CursorPage.Cursor position = CursorPage.Cursor.decode(cursor);
+        List<TaskVo> rows = taskMapper.selectTodoTasksAfter(userId,
+                position != null ? position.time() : null, position != null ? position.id() : null, size + 1);
+        return CursorPage.of(rows, size, task -> new CursorPage.Cursor(task.getCreateTime(), task.getTaskId()),
+                Function.identity());
     }
 
     @Override
@@ -102,7 +92,7 @@ public class TaskServiceImpl implements ITaskService {
             throw new BusinessException(403, "无权处理此任务");
         }
 
-        if (task.getStatus() == 1) {
+        if (Integer.valueOf(1).equals(task.getStatus())) {
             throw new BusinessException("任务已处理，请勿重复操作");
         }
 
@@ -111,14 +101,20 @@ public class TaskServiceImpl implements ITaskService {
         if (application == null) {
             throw new BusinessException("申请不存在");
         }
+        Integer previousStatus = application.getStatus();
+        if (!Integer.valueOf(1).equals(previousStatus) && !Integer.valueOf(2).equals(previousStatus)) {
+            throw new BusinessException("任务已处理，请勿重复操作");
+        }
 
         // 4. 获取审批人信息
         User approver = userMapper.selectById(userId);
 
-        // 5. 更新任务状态
+        // 5. 更新任务状态（条件更新，重复提交时只有一次成功，审批人日汇总不会重复累加）
         task.setStatus(1); // 已处理
         task.setFinishTime(LocalDateTime.now());
-        taskMapper.updateById(task);
+        if (taskMapper.finishTask(task.getTaskId(), task.getFinishTime()) == 0) {
+            throw new BusinessException("任务已处理，请勿重复操作");
+        }
 
         // 6. 记录审批历史
         History history = new History();
@@ -145,8 +141,15 @@ public class TaskServiceImpl implements ITaskService {
             history.setNextNode("结束");
         }
 
-        applicationMapper.updateById(application);
+        // 条件更新：并发审批或撤回时只有一方迁移成功，失败方回滚整个事务，统计不会重复累加
+        if (applicationMapper.transitionStatus(application.getAppId(), previousStatus,
+                application.getStatus(), application.getFinishTime()) == 0) {
+            throw new BusinessException("任务已处理，请勿重复操作");
+        }
         historyMapper.insert(history);
+        userAppStatsService.onFinished(application, previousStatus);
+        approverDailyStatsMapper.increment(userId, history.getApproveTime().toLocalDate(),
+                application.getAppType(), dto.getAction());
     }
 
     @Override
@@ -161,39 +164,80 @@ public class TaskServiceImpl implements ITaskService {
         Page<Task> taskPage = taskMapper.selectPage(page, wrapper);
 
         Page<TaskVo> voPage = new Page<>(taskPage.getCurrent(), taskPage.getSize(), taskPage.getTotal());
+        voPage.setRecords(enrichDoneTasks(taskPage.getRecords()));
+        return voPage;
+    }
+
+    @Override
+    public CursorPage<TaskVo> getDoneTasksByCursor(Long userId, String cursor, Integer pageSize) {
+        int size = CursorPage.normalizeSize(pageSize);
+
+        LambdaQueryWrapper<Task> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(Task::getAssigneeId, userId)
+                .eq(Task::getStatus, 1); // 已处理
+        CursorQueryUtils.seekDesc(wrapper, Task::getFinishTime, Task::getTaskId,
+                CursorPage.Cursor.decode(cursor), size);
+
+        return CursorPage.of(taskMapper.selectList(wrapper), size,
+                task -> new CursorPage.Cursor(task.getFinishTime(), task.getTaskId()),
+                this::enrichDoneTasks);
+    }
+
+    /**
+     * 批量补全已办任务的申请信息、申请人及审批结果，查询次数与分页大小无关
+     */
+    private List<TaskVo> enrichDoneTasks(List<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return Collections.emptyList();
+        }
 
-        voPage.setRecords(taskPage.getRecords().stream().map(task -> {
+        List<Long> taskIds = tasks.stream()
+                .map(Task::getTaskId)
+                .collect(Collectors.toList());
+        Map<Long, History> latestHistoryMap = historyMapper.selectLatestByTaskIds(taskIds).stream()
+                .collect(Collectors.toMap(History::getTaskId, Function.identity(), (first, second) -> first));
+
+        List<Long> appIds = tasks.stream()
+                .map(Task::getAppId)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, Application> applicationMap = applicationMapper.selectBatchIds(appIds).stream()
+                .collect(Collectors.toMap(Application::getAppId, Function.identity()));
+
+        List<Long> applicantIds = applicationMap.values().stream()
+                .map(Application::getApplicantId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, User> applicantMap = applicantIds.isEmpty()
+                ? Collections.emptyMap()
+                : userMapper.selectBatchIds(applicantIds).stream()
+                        .collect(Collectors.toMap(User::getUserId, Function.identity()));
+
+        return tasks.stream().map(task -> {
             TaskVo vo = new TaskVo();
             org.springframework.beans.BeanUtils.copyProperties(task, vo);
 
-            // 查询申请信息
-            Application app = applicationMapper.selectById(task.getAppId());
+            Application app = applicationMap.get(task.getAppId());
             if (app != null) {
                 vo.setAppNo(app.getAppNo());
                 vo.setAppType(app.getAppType());
                 vo.setTitle(app.getTitle());
 
-                User applicant = userMapper.selectById(app.getApplicantId());
+                User applicant = applicantMap.get(app.getApplicantId());
                 if (applicant != null) {
                     vo.setApplicantName(applicant.getRealName());
                 }
             }
 
-            // 查询审批结果（从历史记录）
-            History history = historyMapper.selectOne(
-                    new LambdaQueryWrapper<History>()
-                            .eq(History::getTaskId, task.getTaskId())
-                            .orderByDesc(History::getCreateTime)
-                            .last("LIMIT 1"));
+            History history = latestHistoryMap.get(task.getTaskId());
             if (history != null) {
                 vo.setAction(history.getAction());
                 vo.setComment(history.getComment());
             }
 
             return vo;
-        }).collect(java.util.stream.Collectors.toList()));
-
-        return voPage;
+        }).collect(Collectors.toList());
     }
 
     @Override
@@ -207,60 +251,32 @@ public class TaskServiceImpl implements ITaskService {
 
         String deptName = "";
         if (user.getDeptId() != null) {
-            Dept dept = deptMapper.selectById(user.getDeptId());
+            Dept dept = deptCache.get(user.getDeptId());
             deptName = dept != null ? dept.getDeptName() : "";
         }
 
         String postName = "";
         if (user.getPostId() != null) {
-            Post post = postMapper.selectById(user.getPostId());
+            Post post = postCache.get(user.getPostId());
             postName = post != null ? post.getPostName() : "";
         }
 
-        List<Task> finishedTasks = taskMapper.selectList(new LambdaQueryWrapper<Task>()
-            .eq(Task::getAssigneeId, userId)
-            .eq(Task::getStatus, 1));
-
-        List<Long> taskIds = finishedTasks.stream()
-                .map(Task::getTaskId)
-                .collect(Collectors.toList());
-        Map<Long, History> latestHistoryMap = buildLatestHistoryMap(taskIds);
-
-        List<DailyApprovalStatVo> dailyStats = buildDailyStats(finishedTasks, latestHistoryMap, targetMonth);
-
-        if (finishedTasks.isEmpty()) {
-            return ApproverDashboardVo.builder()
-                .realName(user.getRealName())
-                .deptName(deptName)
-                .postName(postName)
-                .totalCount(0L)
-                .approvedCount(0L)
-                .rejectedCount(0L)
-                .typeStats(Collections.emptyList())
-                .dailyStats(dailyStats)
-                .build();
-        }
-
-        long approvedCount = latestHistoryMap.values().stream()
-                .filter(history -> history != null && Integer.valueOf(1).equals(history.getAction()))
-                .count();
-        long rejectedCount = latestHistoryMap.values().stream()
-                .filter(history -> history != null && Integer.valueOf(2).equals(history.getAction()))
-                .count();
-
-        List<Long> appIds = finishedTasks.stream()
-                .map(Task::getAppId)
-                .collect(Collectors.toList());
-        Map<Long, Application> applicationMap = appIds.isEmpty()
-                ? Collections.emptyMap()
-                : applicationMapper.selectBatchIds(appIds).stream()
-                        .collect(Collectors.toMap(Application::getAppId, Function.identity()));
+        // 汇总表每天每种类型、动作一行，全量合计和当月按天统计都只扫描该审批人的少量汇总行
+        List<ApproverDailyStats> totals = approverDailyStatsMapper.selectTotalsByApprover(userId);
 
+        long totalCount = 0;
+        long approvedCount = 0;
+        long rejectedCount = 0;
         Map<String, Long> typeCounter = new HashMap<>();
-        for (Task task : finishedTasks) {
-            Application application = applicationMap.get(task.getAppId());
-            String appType = application != null ? application.getAppType() : "other";
-            typeCounter.merge(appType, 1L, Long::sum);
+        for (ApproverDailyStats row : totals) {
+            long count = row.getApproveCount() != null ? row.getApproveCount() : 0L;
+            totalCount += count;
+            if (Integer.valueOf(1).equals(row.getAction())) {
+                approvedCount += count;
+            } else if (Integer.valueOf(2).equals(row.getAction())) {
+                rejectedCount += count;
+            }
+            typeCounter.merge(row.getAppType() != null ? row.getAppType() : "other", count, Long::sum);
         }
 
         List<ApprovalTypeStatVo> typeStats = typeCounter.entrySet().stream()
@@ -276,11 +292,11 @@ public class TaskServiceImpl implements ITaskService {
                 .realName(user.getRealName())
                 .deptName(deptName)
                 .postName(postName)
-                .totalCount((long) finishedTasks.size())
+                .totalCount(totalCount)
                 .approvedCount(approvedCount)
                 .rejectedCount(rejectedCount)
                 .typeStats(typeStats)
-                .dailyStats(dailyStats)
+                .dailyStats(buildDailyStats(userId, targetMonth))
                 .build();
     }
 
@@ -295,10 +311,7 @@ public class TaskServiceImpl implements ITaskService {
         }
     }
 
-    private List<DailyApprovalStatVo> buildDailyStats(
-            List<Task> tasks,
-            Map<Long, History> latestHistoryMap,
-            YearMonth targetMonth) {
+    private List<DailyApprovalStatVo> buildDailyStats(Long approverId, YearMonth targetMonth) {
         YearMonth month = targetMonth != null ? targetMonth : YearMonth.now();
         LocalDate startDate = month.atDay(1);
         LocalDate endDate = month.plusMonths(1).atDay(1);
@@ -308,20 +321,9 @@ public class TaskServiceImpl implements ITaskService {
             counter.put(date, 0L);
         }
 
-        if (tasks != null && !tasks.isEmpty()) {
-            for (Task task : tasks) {
-                History history = latestHistoryMap != null ? latestHistoryMap.get(task.getTaskId()) : null;
-                LocalDateTime time = history != null && history.getApproveTime() != null
-                        ? history.getApproveTime()
-                        : task.getFinishTime();
-                if (time == null) {
-                    continue;
-                }
-
-                LocalDate date = time.toLocalDate();
-                if (!date.isBefore(startDate) && date.isBefore(endDate)) {
-                    counter.merge(date, 1L, Long::sum);
-                }
+        for (ApproverDailyStats row : approverDailyStatsMapper.selectDailyByApprover(approverId, startDate, endDate)) {
+            if (row.getStatDate() != null && row.getApproveCount() != null) {
+                counter.merge(row.getStatDate(), row.getApproveCount(), Long::sum);
             }
         }
 
@@ -333,39 +335,6 @@ public class TaskServiceImpl implements ITaskService {
                 .collect(Collectors.toList());
     }
 
-    private Map<Long, History> buildLatestHistoryMap(List<Long> taskIds) {
-        if (taskIds == null || taskIds.isEmpty()) {
-            return Collections.emptyMap();
-        }
-
-        List<History> histories = historyMapper.selectList(
-                new LambdaQueryWrapper<History>().in(History::getTaskId, taskIds));
-        if (histories.isEmpty()) {
-            return Collections.emptyMap();
-        }
-
-        Map<Long, History> map = new HashMap<>();
-        for (History history : histories) {
-            History existing = map.get(history.getTaskId());
-            if (existing == null) {
-                map.put(history.getTaskId(), history);
-                continue;
-            }
-
-            LocalDateTime existingTime = existing.getApproveTime() != null ? existing.getApproveTime() : existing.getCreateTime();
-            LocalDateTime currentTime = history.getApproveTime() != null ? history.getApproveTime() : history.getCreateTime();
-
-            if (currentTime == null) {
-                continue;
-            }
-
-            if (existingTime == null || currentTime.isAfter(existingTime)) {
-                map.put(history.getTaskId(), history);
-            }
-        }
-        return map;
-    }
-
     private String resolveTypeLabel(String appType) {
         if (appType == null) {
             return "其他";
@@ -0,0 +1,67 @@
+package com.approval.module.approval.service.impl;
+
+import com.approval.module.approval.cache.UserAppStatsCache;
+import com.approval.module.approval.entity.Application;
+import com.approval.module.approval.entity.UserAppStats;
+import com.approval.module.approval.mapper.UserAppStatsMapper;
+import com.approval.module.approval.service.IUserAppStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 用户申请统计服务实现
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UserAppStatsServiceImpl implements IUserAppStatsService {
+
+    private static final int PENDING_STATUS = 1;
+
+    private final UserAppStatsMapper userAppStatsMapper;
+    private final UserAppStatsCache userAppStatsCache;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onSubmitted(Application application) {
+        userAppStatsMapper.incrementSubmitted(
+                application.getApplicantId(), application.getAppType(), application.getSubmitTime());
+        userAppStatsCache.invalidate(application.getApplicantId());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onFinished(Application application, Integer previousStatus) {
+        Long applicantId = application.getApplicantId();
+        // 与全量重建口径一致：待审批数只统计 status = 1
+        int pendingDelta = Integer.valueOf(PENDING_STATUS).equals(previousStatus) ? 1 : 0;
+        int updated = switch (application.getStatus()) {
+            case 3 -> userAppStatsMapper.incrementApproved(applicantId, application.getAppId(), pendingDelta);
+            case 4 -> userAppStatsMapper.incrementRejected(applicantId, pendingDelta);
+            case 5 -> userAppStatsMapper.incrementWithdrawn(applicantId, pendingDelta);
+            default -> throw new IllegalArgumentException("非终态申请：" + application.getStatus());
+        };
+        if (updated == 0) {
+            log.warn("用户申请统计缺失，需执行重建，userId={}", applicantId);
+        }
+        userAppStatsCache.invalidate(applicantId);
+    }
+
+    @Override
+    public UserAppStats getByUserId(Long userId) {
+        return userAppStatsCache.get(userId);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public int rebuildAll() {
+        userAppStatsMapper.deleteAllStats();
+        int rows = userAppStatsMapper.insertRebuiltStats();
+        userAppStatsCache.invalidateAll();
+        log.info("用户申请统计重建完成，用户数={}", rows);
+        return rows;
+    }
+}
@@ -1,7 +1,7 @@
 package com.approval.module.auth.controller;
 
 import com.approval.common.result.Result;
-import com.approval.common.utils.JwtUtils;
+import com.approval.common.security.ApprovalUserPrincipal;
 import com.approval.module.auth.dto.LoginDto;
 import com.approval.module.auth.dto.RegisterDto;
 import com.approval.module.auth.service.IAuthService;
@@ -22,7 +22,6 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final IAuthService authService;
-    private final JwtUtils jwtUtils;
 
     @Operation(summary = "用户注册")
     @PostMapping("/register")
@@ -40,12 +39,8 @@ public class AuthController {
 
     @Operation(summary = "获取用户信息")
     @GetMapping("/userinfo")
-    public Result<LoginVo.UserInfoVo> getUserInfo(@RequestHeader("Authorization") String token) {
-        // 从token中提取用户名
-        String actualToken = token.replace("Bearer ", "");
-        String username = jwtUtils.getUsernameFromToken(actualToken);
-
-        LoginVo.UserInfoVo userInfo = authService.getUserInfo(username);
+    public Result<LoginVo.UserInfoVo> getUserInfo(ApprovalUserPrincipal principal) {
+        LoginVo.UserInfoVo userInfo = authService.getUserInfo(principal.getUsername());
         return Result.success(userInfo);
     }
 
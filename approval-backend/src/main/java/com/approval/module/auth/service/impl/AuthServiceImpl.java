@@ -1,18 +1,17 @@
 package com.approval.module.auth.service.impl;
 
 import com.approval.common.exception.BusinessException;
+import com.approval.common.security.ApprovalUserPrincipal;
 import com.approval.common.utils.JwtUtils;
 import com.approval.module.auth.dto.LoginDto;
 import com.approval.module.auth.dto.RegisterDto;
 import com.approval.module.auth.service.IAuthService;
 import com.approval.module.auth.vo.LoginVo;
-import com.approval.module.system.entity.Dept;
-import com.approval.module.system.entity.Post;
+import com.approval.module.system.cache.UserCache;
+import com.approval.module.system.converter.UserVoConverter;
 import com.approval.module.system.entity.User;
-import com.approval.module.system.mapper.PermissionMapper;
-import com.approval.module.system.mapper.PostMapper;
-import com.approval.module.system.mapper.DeptMapper;
 import com.approval.module.system.mapper.UserMapper;
+import com.approval.module.system.vo.UserVo;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -30,9 +29,8 @@ import java.util.List;
 public class AuthServiceImpl implements IAuthService {
 
     private final UserMapper userMapper;
-    private final PostMapper postMapper;
-    private final DeptMapper deptMapper;
-    private final PermissionMapper permissionMapper;
+    private final UserCache userCache;
+    private final UserVoConverter userVoConverter;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtils jwtUtils;
 
@@ -66,7 +64,7 @@ public class AuthServiceImpl implements IAuthService {
         userMapper.insert(user);
 
         // 4. 生成Token并返回（注册成功后自动登录）
-        String token = jwtUtils.generateToken(user.getUsername());
+        String token = jwtUtils.generateToken(toPrincipal(user));
 
         LoginVo loginVo = new LoginVo();
         loginVo.setToken(token);
@@ -97,7 +95,7 @@ public class AuthServiceImpl implements IAuthService {
         }
 
         // 4. 生成Token
-        String token = jwtUtils.generateToken(user.getUsername());
+        String token = jwtUtils.generateToken(toPrincipal(user));
 
         LoginVo loginVo = new LoginVo();
         loginVo.setToken(token);
@@ -108,9 +106,7 @@ public class AuthServiceImpl implements IAuthService {
 
     @Override
     public LoginVo.UserInfoVo getUserInfo(String username) {
-        User user = userMapper.selectOne(
-                new LambdaQueryWrapper<User>()
-                        .eq(User::getUsername, username));
+        User user = userCache.getByUsername(username);
 
         if (user == null) {
             throw new BusinessException(404, "用户不存在");
@@ -119,6 +115,10 @@ public class AuthServiceImpl implements IAuthService {
         return buildUserInfo(user);
     }
 
+    private ApprovalUserPrincipal toPrincipal(User user) {
+        return new ApprovalUserPrincipal(user.getUserId(), user.getUsername(), user.getDeptId(), user.getPostId());
+    }
+
     /**
      * 构建用户信息VO
      */
@@ -129,26 +129,18 @@ public class AuthServiceImpl implements IAuthService {
         userInfo.setRealName(user.getRealName());
         userInfo.setAvatar(user.getAvatar());
 
-        if (user.getDeptId() != null) {
-            Dept dept = deptMapper.selectById(user.getDeptId());
-            if (dept != null) {
-                userInfo.setDeptId(dept.getDeptId());
-                userInfo.setDeptName(dept.getDeptName());
-            }
+        UserVo userVo = userVoConverter.toUserVo(user);
+        if (userVo.getDeptName() != null) {
+            userInfo.setDeptId(userVo.getDeptId());
+            userInfo.setDeptName(userVo.getDeptName());
         }
-        
-        if (user.getPostId() != null) {
-            Post post = postMapper.selectById(user.getPostId());
-            if (post != null) {
-                userInfo.setPostId(post.getPostId());
-                userInfo.setPostName(post.getPostName());
-            }
+        if (userVo.getPostName() != null) {
+            userInfo.setPostId(userVo.getPostId());
+            userInfo.setPostName(userVo.getPostName());
         }
 
-        List<String> permissions = user.getPostId() != null
-                ? permissionMapper.selectPermissionCodesByPostId(user.getPostId())
-                : Collections.emptyList();
-        if (permissions == null || permissions.isEmpty()) {
+        List<String> permissions = userVo.getPermissions();
+        if (permissions.isEmpty()) {
             permissions = Collections.singletonList("BASIC_APPLICANT");
         }
         userInfo.setPermissions(permissions);
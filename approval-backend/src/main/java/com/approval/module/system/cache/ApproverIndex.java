@@ -0,0 +1,135 @@
+package com.approval.module.system.cache;
+
+import com.approval.common.cache.RedisCacheTier;
+import com.approval.common.utils.TransactionUtils;
+import com.approval.module.system.entity.User;
+import com.approval.module.system.mapper.UserMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 审批人索引（deptId -> 岗位持有审批权限的启用用户）
+ * 用户、岗位权限变更后整体失效，下次读取时用一次联表查询重建
+ */
+@Component
+@RequiredArgsConstructor
+public class ApproverIndex {
+
+    public static final String APPROVAL_PERMISSION_CODE = "APPROVAL_REVIEW";
+
+    private static final String CACHE_NAME = "approverIndex";
+
+    private final UserMapper userMapper;
+    private final RedisCacheTier redisCacheTier;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * 失效代数：每次失效加一，快照记录加载开始时的代数，代数不一致的快照视为已失效
+     * 加载期间发生的失效（事务提交、跨节点通知）不会被随后写入的旧快照覆盖
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * 其他节点提交变更后广播失效通知，本节点丢弃快照
+     */
+    @PostConstruct
+    public void subscribe() {
+        redisCacheTier.subscribe(CACHE_NAME, key -> discard());
+    }
+
+    /**
+     * 部门内可选审批人，按用户ID升序
+     */
+    public List<Approver> getDeptApprovers(Long deptId) {
+        if (deptId == null) {
+            return Collections.emptyList();
+        }
+        return snapshot().byDept.getOrDefault(deptId, Collections.emptyList());
+    }
+
+    /**
+     * 查找审批人，用户不具备审批资格时返回 null
+     */
+    public Approver getApprover(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return snapshot().byUser.get(userId);
+    }
+
+    /**
+     * 立即失效，并在当前事务提交后再失效一次，避免并发读取把未提交前的数据装入索引
+     */
+    public void invalidate() {
+        discard();
+        TransactionUtils.afterCommit(() -> {
+            discard();
+            redisCacheTier.publish(CACHE_NAME, RedisCacheTier.ALL_KEYS);
+        });
+    }
+
+    private void discard() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null || current.generation != generation.get()) {
+            synchronized (this) {
+                current = snapshot;
+                long loadGeneration = generation.get();
+                if (current == null || current.generation != loadGeneration) {
+                    current = new Snapshot(loadGeneration, userMapper.selectActiveUsersWithPermission(APPROVAL_PERMISSION_CODE));
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Approver {
+        private final Long userId;
+        private final String realName;
+        private final Long deptId;
+        private final Long postId;
+    }
+
+    private static final class Snapshot {
+
+        private final long generation;
+        private final Map<Long, List<Approver>> byDept;
+        private final Map<Long, Approver> byUser;
+
+        private Snapshot(long generation, List<User> users) {
+            this.generation = generation;
+            Map<Long, Approver> userIndex = new HashMap<>();
+            for (User user : users) {
+                userIndex.putIfAbsent(user.getUserId(),
+                        new Approver(user.getUserId(), user.getRealName(), user.getDeptId(), user.getPostId()));
+            }
+
+            Map<Long, List<Approver>> deptIndex = new HashMap<>();
+            userIndex.values().stream()
+                    .sorted((a, b) -> Long.compare(a.getUserId(), b.getUserId()))
+                    .forEach(approver -> deptIndex.computeIfAbsent(approver.getDeptId(), id -> new ArrayList<>()).add(approver));
+            deptIndex.replaceAll((deptId, approvers) -> Collections.unmodifiableList(approvers));
+
+            this.byDept = deptIndex;
+            this.byUser = userIndex;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.approval.module.system.cache;
+
+import com.approval.common.cache.AbstractReferenceCache;
+import com.approval.common.cache.RedisCacheTier;
+import com.approval.module.system.entity.Dept;
+import com.approval.module.system.mapper.DeptMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 部门缓存
+ */
+@Component
+public class DeptCache extends AbstractReferenceCache<Dept> {
+
+    private final DeptMapper deptMapper;
+
+    public DeptCache(DeptMapper deptMapper, RedisCacheTier redisCacheTier, MeterRegistry meterRegistry) {
+        super("dept", 2000, new TypeReference<Dept>() { }, redisCacheTier, meterRegistry);
+        this.deptMapper = deptMapper;
+    }
+
+    @Override
+    protected Dept load(Long deptId) {
+        return deptMapper.selectById(deptId);
+    }
+
+    @Override
+    protected Map<Long, Dept> loadAll(Set<Long> deptIds) {
+        return deptMapper.selectBatchIds(deptIds).stream()
+                .collect(Collectors.toMap(Dept::getDeptId, Function.identity()));
+    }
+}
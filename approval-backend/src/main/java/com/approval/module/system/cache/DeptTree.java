@@ -0,0 +1,214 @@
+package com.approval.module.system.cache;
+
+import com.approval.common.cache.RedisCacheTier;
+import com.approval.common.utils.TransactionUtils;
+import com.approval.module.system.entity.Dept;
+import com.approval.module.system.mapper.DeptMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 部门树快照（写时复制）
+ * 整张 sys_dept 按 order_num 排序后以数组保存，父子关系用下标数组表示；
+ * 部门写入后整体失效，下次读取时重新加载，读取过程不访问数据库
+ */
+@Component
+@RequiredArgsConstructor
+public class DeptTree {
+
+    private static final String CACHE_NAME = "deptTree";
+
+    private final DeptMapper deptMapper;
+    private final RedisCacheTier redisCacheTier;
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * 失效代数：每次失效加一，快照记录加载开始时的代数，代数不一致的快照视为已失效
+     * 加载期间发生的失效（事务提交、跨节点通知）不会被随后写入的旧快照覆盖
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * 其他节点提交变更后广播失效通知，本节点丢弃快照
+     */
+    @PostConstruct
+    public void subscribe() {
+        redisCacheTier.subscribe(CACHE_NAME, key -> discard());
+    }
+
+    /**
+     * 全部部门，按 order_num、dept_id 升序
+     */
+    public List<Dept> list() {
+        return snapshot().ordered;
+    }
+
+    public Dept get(Long deptId) {
+        Snapshot current = snapshot();
+        int index = current.indexOf(deptId);
+        return index < 0 ? null : current.depts[index];
+    }
+
+    /**
+     * 父部门，顶级部门或父部门不存在时返回 null
+     */
+    public Dept getParent(Long deptId) {
+        Snapshot current = snapshot();
+        int index = current.indexOf(deptId);
+        if (index < 0 || current.parent[index] < 0) {
+            return null;
+        }
+        return current.depts[current.parent[index]];
+    }
+
+    /**
+     * 祖先部门，由近及远
+     */
+    public List<Dept> getAncestors(Long deptId) {
+        Snapshot current = snapshot();
+        int index = current.indexOf(deptId);
+        if (index < 0) {
+            return Collections.emptyList();
+        }
+        List<Dept> ancestors = new ArrayList<>();
+        // 最多上溯部门总数层，防止脏数据成环时死循环
+        for (int p = current.parent[index], depth = 0; p >= 0 && depth < current.depts.length; p = current.parent[p], depth++) {
+            ancestors.add(current.depts[p]);
+        }
+        return ancestors;
+    }
+
+    /**
+     * 子树内全部部门ID（含自身），部门不存在时返回空列表
+     */
+    public List<Long> getSubtreeIds(Long deptId) {
+        Snapshot current = snapshot();
+        int index = current.indexOf(deptId);
+        if (index < 0) {
+            return Collections.emptyList();
+        }
+        List<Long> ids = new ArrayList<>();
+        boolean[] visited = new boolean[current.depts.length];
+        int[] stack = new int[current.depts.length];
+        int top = 0;
+        stack[top++] = index;
+        visited[index] = true;
+        while (top > 0) {
+            int i = stack[--top];
+            ids.add(current.depts[i].getDeptId());
+            for (int child : current.children[i]) {
+                if (!visited[child]) {
+                    visited[child] = true;
+                    stack[top++] = child;
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * candidateId 是否为 ancestorId 自身或其下级部门
+     */
+    public boolean isInSubtree(Long ancestorId, Long candidateId) {
+        if (ancestorId == null || candidateId == null) {
+            return false;
+        }
+        if (ancestorId.equals(candidateId)) {
+            return true;
+        }
+        return getAncestors(candidateId).stream().anyMatch(dept -> ancestorId.equals(dept.getDeptId()));
+    }
+
+    /**
+     * 立即失效，并在当前事务提交后再失效一次，避免并发读取把未提交前的数据装入快照
+     */
+    public void invalidate() {
+        discard();
+        TransactionUtils.afterCommit(() -> {
+            discard();
+            redisCacheTier.publish(CACHE_NAME, RedisCacheTier.ALL_KEYS);
+        });
+    }
+
+    private void discard() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null || current.generation != generation.get()) {
+            synchronized (this) {
+                current = snapshot;
+                long loadGeneration = generation.get();
+                if (current == null || current.generation != loadGeneration) {
+                    current = new Snapshot(loadGeneration, deptMapper.selectList(null));
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static final class Snapshot {
+
+        private final long generation;
+        private final Dept[] depts;
+        private final int[] parent;
+        private final int[][] children;
+        private final Map<Long, Integer> indexById;
+        private final List<Dept> ordered;
+
+        private Snapshot(long generation, List<Dept> rows) {
+            this.generation = generation;
+            this.depts = rows.stream()
+                    .sorted(Comparator.comparing(Dept::getOrderNum, Comparator.nullsFirst(Comparator.naturalOrder()))
+                            .thenComparing(Dept::getDeptId))
+                    .toArray(Dept[]::new);
+            this.indexById = new HashMap<>(depts.length * 2);
+            for (int i = 0; i < depts.length; i++) {
+                indexById.put(depts[i].getDeptId(), i);
+            }
+
+            this.parent = new int[depts.length];
+            int[] childCount = new int[depts.length];
+            for (int i = 0; i < depts.length; i++) {
+                Integer p = depts[i].getParentId() != null ? indexById.get(depts[i].getParentId()) : null;
+                parent[i] = p != null && p != i ? p : -1;
+                if (parent[i] >= 0) {
+                    childCount[parent[i]]++;
+                }
+            }
+            this.children = new int[depts.length][];
+            for (int i = 0; i < depts.length; i++) {
+                children[i] = new int[childCount[i]];
+            }
+            int[] filled = new int[depts.length];
+            for (int i = 0; i < depts.length; i++) {
+                if (parent[i] >= 0) {
+                    children[parent[i]][filled[parent[i]]++] = i;
+                }
+            }
+            this.ordered = Collections.unmodifiableList(Arrays.asList(depts));
+        }
+
+        private int indexOf(Long deptId) {
+            if (deptId == null) {
+                return -1;
+            }
+            Integer index = indexById.get(deptId);
+            return index != null ? index : -1;
+        }
+    }
+}
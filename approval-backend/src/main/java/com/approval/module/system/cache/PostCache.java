@@ -0,0 +1,39 @@
+package com.approval.module.system.cache;
+
+import com.approval.common.cache.AbstractReferenceCache;
+import com.approval.common.cache.RedisCacheTier;
+import com.approval.module.system.entity.Post;
+import com.approval.module.system.mapper.PostMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 岗位缓存
+ */
+@Component
+public class PostCache extends AbstractReferenceCache<Post> {
+
+    private final PostMapper postMapper;
+
+    public PostCache(PostMapper postMapper, RedisCacheTier redisCacheTier, MeterRegistry meterRegistry) {
+        super("post", 1000, new TypeReference<Post>() { }, redisCacheTier, meterRegistry);
+        this.postMapper = postMapper;
+    }
+
+    @Override
+    protected Post load(Long postId) {
+        return postMapper.selectById(postId);
+    }
+
+    @Override
+    protected Map<Long, Post> loadAll(Set<Long> postIds) {
+        return postMapper.selectBatchIds(postIds).stream()
+                .collect(Collectors.toMap(Post::getPostId, Function.identity()));
+    }
+}
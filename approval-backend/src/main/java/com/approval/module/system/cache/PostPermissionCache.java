@@ -0,0 +1,83 @@
+package com.approval.module.system.cache;
+
+import com.approval.common.cache.AbstractReferenceCache;
+import com.approval.common.cache.RedisCacheTier;
+import com.approval.module.system.entity.PostPermission;
+import com.approval.module.system.mapper.PermissionMapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 岗位权限缓存（postId -> 启用的权限）
+ * 岗位管理页展示权限明细，登录、审批人校验只需要权限编码，两者共用同一份缓存
+ */
+@Component
+public class PostPermissionCache extends AbstractReferenceCache<List<PostPermission>> {
+
+    private final PermissionMapper permissionMapper;
+
+    public PostPermissionCache(PermissionMapper permissionMapper, RedisCacheTier redisCacheTier, MeterRegistry meterRegistry) {
+        super("postPermission", 1000, new TypeReference<List<PostPermission>>() { }, redisCacheTier, meterRegistry);
+        this.permissionMapper = permissionMapper;
+    }
+
+    /**
+     * 岗位的权限编码，岗位为空或没有权限时返回空列表
+     */
+    public List<String> getCodes(Long postId) {
+        List<PostPermission> permissions = get(postId);
+        return permissions != null ? toCodes(permissions) : Collections.emptyList();
+    }
+
+    /**
+     * 批量获取岗位的权限编码
+     */
+    public Map<Long, List<String>> getAllCodes(Collection<Long> postIds) {
+        Map<Long, List<String>> result = new HashMap<>();
+        getAll(postIds).forEach((postId, permissions) -> result.put(postId, toCodes(permissions)));
+        return result;
+    }
+
+    @Override
+    protected List<PostPermission> load(Long postId) {
+        return loadAll(Collections.singleton(postId)).get(postId);
+    }
+
+    @Override
+    protected Map<Long, List<PostPermission>> loadAll(Set<Long> postIds) {
+        return groupByPost(permissionMapper.selectPostPermissionsByPostIds(postIds), postIds);
+    }
+
+    /**
+     * 将（岗位, 权限）行按岗位分组；没有权限的岗位同样返回空列表，避免重复查询
+     */
+    private static Map<Long, List<PostPermission>> groupByPost(List<PostPermission> rows, Set<Long> postIds) {
+        Map<Long, List<PostPermission>> grouped = new HashMap<>();
+        for (PostPermission row : rows) {
+            grouped.computeIfAbsent(row.getPostId(), id -> new ArrayList<>()).add(row);
+        }
+
+        Map<Long, List<PostPermission>> result = new HashMap<>();
+        for (Long postId : postIds) {
+            List<PostPermission> permissions = grouped.get(postId);
+            result.put(postId, permissions != null ? Collections.unmodifiableList(permissions) : Collections.emptyList());
+        }
+        return result;
+    }
+
+    private static List<String> toCodes(List<PostPermission> permissions) {
+        return permissions.stream()
+                .map(PostPermission::getPermissionCode)
+                .collect(Collectors.toUnmodifiableList());
+    }
+}
@@ -0,0 +1,104 @@
+package com.approval.module.system.cache;
+
+import com.approval.common.cache.AbstractReferenceCache;
+import com.approval.common.cache.RedisCacheTier;
+import com.approval.module.system.entity.User;
+import com.approval.module.system.mapper.UserMapper;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 用户缓存（按用户ID），供申请提交、用户信息等高频读取使用
+ * 缓存中的用户不含密码；登录校验密码仍直接查库
+ */
+@Component
+public class UserCache extends AbstractReferenceCache<User> {
+
+    private final UserMapper userMapper;
+
+    /**
+     * 用户名 -> 用户ID，仅本地缓存；用户失效时一并移除指向该用户的条目
+     */
+    private final Cache<String, Long> userIdsByUsername;
+
+    public UserCache(UserMapper userMapper, RedisCacheTier redisCacheTier, MeterRegistry meterRegistry) {
+        super("user", 10000, new TypeReference<User>() { }, redisCacheTier, meterRegistry);
+        this.userMapper = userMapper;
+        this.userIdsByUsername = Caffeine.newBuilder()
+                .maximumSize(10000)
+                .expireAfterWrite(redisCacheTier.localTtl())
+                .build();
+    }
+
+    /**
+     * 按用户名查询，用户不存在时返回 null
+     */
+    public User getByUsername(String username) {
+        if (username == null) {
+            return null;
+        }
+        Long userId = userIdsByUsername.get(username, name -> {
+            User user = userMapper.selectOne(new LambdaQueryWrapper<User>()
+                    .select(User::getUserId)
+                    .eq(User::getUsername, name));
+            return user != null ? user.getUserId() : null;
+        });
+        User user = get(userId);
+        // 用户名已修改时映射过期，移除后重新查询一次
+        if (user != null && !username.equals(user.getUsername())) {
+            userIdsByUsername.invalidate(username);
+            return null;
+        }
+        return user;
+    }
+
+    @Override
+    public void invalidate(Long id) {
+        super.invalidate(id);
+        removeUsernames(id);
+    }
+
+    @Override
+    protected void onRemoteInvalidation(String key) {
+        super.onRemoteInvalidation(key);
+        if (RedisCacheTier.ALL_KEYS.equals(key)) {
+            userIdsByUsername.invalidateAll();
+        } else {
+            removeUsernames(Long.valueOf(key));
+        }
+    }
+
+    @Override
+    protected User load(Long userId) {
+        return withoutPassword(userMapper.selectById(userId));
+    }
+
+    @Override
+    protected Map<Long, User> loadAll(Set<Long> userIds) {
+        return userMapper.selectBatchIds(userIds).stream()
+                .map(this::withoutPassword)
+                .collect(Collectors.toMap(User::getUserId, Function.identity()));
+    }
+
+    private void removeUsernames(Long userId) {
+        if (userId != null) {
+            userIdsByUsername.asMap().values().removeIf(userId::equals);
+        }
+    }
+
+    private User withoutPassword(User user) {
+        if (user != null) {
+            user.setPassword(null);
+        }
+        return user;
+    }
+}
@@ -1,13 +1,12 @@
 package com.approval.module.system.controller;
 
+import com.approval.common.result.CountAwarePage;
+import com.approval.common.result.CursorPage;
 import com.approval.common.result.Result;
-import com.approval.common.utils.JwtUtils;
 import com.approval.module.system.dto.AssignPostDto;
 import com.approval.module.system.dto.DeptDto;
 import com.approval.module.system.dto.PostDto;
 import com.approval.module.system.dto.UserDto;
-import com.approval.module.system.entity.User;
-import com.approval.module.system.mapper.UserMapper;
 import com.approval.module.system.service.IAdminService;
 import com.approval.module.system.vo.DeptVo;
 import com.approval.module.system.vo.PermissionVo;
@@ -15,7 +14,6 @@ import com.approval.module.system.vo.PostVo;
 import com.approval.module.system.vo.UserVo;
 import com.approval.module.system.vo.report.ReportDeptDetailVo;
 import com.approval.module.system.vo.report.ReportSummaryVo;
-import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -33,19 +31,32 @@ import java.util.List;
 public class AdminController {
 
     private final IAdminService adminService;
-    private final JwtUtils jwtUtils;
-    private final UserMapper userMapper;
 
     @Operation(summary = "获取用户列表")
     @GetMapping("/users")
-    public Result<Page<UserVo>> getUserList(
+    public Result<CountAwarePage<UserVo>> getUserList(
             @RequestParam(defaultValue = "1") Integer pageNum,
             @RequestParam(defaultValue = "10") Integer pageSize,
             @RequestParam(required = false) String username,
             @RequestParam(required = false) String realName,
             @RequestParam(required = false) Long deptId,
+            @RequestParam(required = false) Integer status,
+            @RequestParam(defaultValue = "true") Boolean exactCount) {
+        CountAwarePage<UserVo> page = adminService.getUserList(pageNum, pageSize, username, realName, deptId, status,
+                !Boolean.FALSE.equals(exactCount));
+        return Result.success(page);
+    }
+
+    @Operation(summary = "游标分页获取用户列表")
+    @GetMapping("/users/cursor")
+    public Result<CursorPage<UserVo>> getUserListByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer pageSize,
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) String realName,
+            @RequestParam(required = false) Long deptId,
             @RequestParam(required = false) Integer status) {
-        Page<UserVo> page = adminService.getUserList(pageNum, pageSize, username, realName, deptId, status);
+        CursorPage<UserVo> page = adminService.getUserListByCursor(cursor, pageSize, username, realName, deptId, status);
         return Result.success(page);
     }
 
@@ -198,12 +209,4 @@ public class AdminController {
         ReportDeptDetailVo detail = adminService.getDeptReportDetail(deptId, month);
         return Result.success(detail);
     }
-
-    private Long getUserIdFromToken(String token) {
-        String actualToken = token.replace("Bearer ", "");
-        String username = jwtUtils.getUsernameFromToken(actualToken);
-        User user = userMapper.selectOne(
-                new LambdaQueryWrapper<User>().eq(User::getUsername, username));
-        return user != null ? user.getUserId() : null;
-    }
 }
@@ -0,0 +1,213 @@
+package com.approval.module.system.controller;
+
+import com.approval.common.exception.BusinessException;
+import com.approval.module.system.service.IFileService;
+import com.approval.module.system.vo.FileAttachmentVo;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+/**
+ * 附件下载
+ * 支持单段 Range、强 ETag 条件请求（304）；内容寻址文件返回长期不可变缓存头。
+ * 只有按文件头识别出的图片与 PDF 内联显示，其余文件以 application/octet-stream 附件下载。
+ * 响应体优先交给 Tomcat sendfile 零拷贝发送，不支持时通过 FileChannel.transferTo 写出
+ */
+@Slf4j
+@Tag(name = "文件管理")
+@RestController
+@RequiredArgsConstructor
+public class AttachmentController {
+
+    private static final String UPLOAD_PREFIX = "/upload/";
+
+    private static final String IMMUTABLE_CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(365))
+            .cachePublic()
+            .immutable()
+            .getHeaderValue();
+
+    private static final String REVALIDATE_CACHE_CONTROL = CacheControl.noCache().getHeaderValue();
+
+    private static final String NOSNIFF_HEADER = "X-Content-Type-Options";
+
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * 小文件直接写出比 sendfile 更省开销（与 Tomcat DefaultServlet 的默认阈值一致）
+     */
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    private final IFileService fileService;
+
+    @Operation(summary = "下载附件")
+    @RequestMapping(value = "/upload/**", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void download(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String uri = request.getRequestURI().substring(request.getContextPath().length());
+        String relativePath = UriUtils.decode(uri.substring(UPLOAD_PREFIX.length()), StandardCharsets.UTF_8);
+
+        FileAttachmentVo attachment;
+        try {
+            attachment = fileService.getAttachment(relativePath);
+        } catch (BusinessException e) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String etag = attachment.getEtag();
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                attachment.isImmutable() ? IMMUTABLE_CACHE_CONTROL : REVALIDATE_CACHE_CONTROL);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, attachment.getLastModified());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (etagMatches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long size = attachment.getSize();
+        long start = 0;
+        long end = size - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        // If-Range 不匹配时表示客户端缓存已过期，忽略 Range 返回完整内容
+        if (rangeHeader != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] range = parseRange(rangeHeader, size);
+            if (range != null && range.length == 0) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (range != null) {
+                start = range[0];
+                end = range[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentType(attachment.getContentType());
+        response.setHeader(NOSNIFF_HEADER, "nosniff");
+        ContentDisposition.Builder disposition = attachment.isInline()
+                ? ContentDisposition.inline() : ContentDisposition.attachment();
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition
+                .filename(attachment.getFileName(), StandardCharsets.UTF_8)
+                .build()
+                .toString());
+        response.setContentLengthLong(length);
+        if (RequestMethod.HEAD.name().equals(request.getMethod()) || length <= 0) {
+            return;
+        }
+
+        if (length >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTR, attachment.getPath().toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(attachment.getPath(), StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        } catch (IOException e) {
+            // 预览时拖动进度条或关闭页面会中断连接，属正常情况
+            log.debug("附件下载中断：{}，{}", relativePath, e.getMessage());
+        }
+    }
+
+    /**
+     * If-None-Match 采用弱比较，支持多个值与 *
+     */
+    private boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if ("*".equals(value) || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 解析单段 Range：返回 {start, end}；起始位置超出文件大小时返回空数组（416）；
+     * 格式无效（如 bytes=5-3）或不支持（含多段）时返回 null，按 RFC 9110 忽略 Range 返回完整内容
+     */
+    private long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // bytes=-N：最后 N 个字节
+                long suffix = Long.parseLong(last);
+                if (suffix < 0) {
+                    return null;
+                }
+                if (suffix == 0 || size == 0) {
+                    return new long[0];
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                long lastPos = last.isEmpty() ? Long.MAX_VALUE : Long.parseLong(last);
+                if (start < 0 || lastPos < start) {
+                    return null;
+                }
+                if (start >= size) {
+                    return new long[0];
+                }
+                end = Math.min(lastPos, size - 1);
+            }
+            return new long[] {start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -2,26 +2,32 @@ package com.approval.module.system.controller;
 
 import com.approval.common.exception.BusinessException;
 import com.approval.common.result.Result;
-import com.approval.config.FileStorageProperties;
+import com.approval.common.security.ApprovalUserPrincipal;
+import com.approval.module.system.dto.ChunkedUploadInitDto;
+import com.approval.module.system.service.IChunkedUploadService;
+import com.approval.module.system.service.IFileService;
+import com.approval.module.system.vo.ChunkedUploadVo;
+import com.approval.module.system.vo.FileUploadVo;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
-import lombok.Data;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
-import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.time.LocalDate;
-import java.util.UUID;
+import java.io.InputStream;
 
 @Tag(name = "文件管理")
 @RestController
@@ -29,64 +35,92 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class FileController {
 
-    private final FileStorageProperties fileStorageProperties;
+    private static final String CHUNK_SHA256_HEADER = "X-Chunk-Sha256";
+
+    private final IFileService fileService;
+    private final IChunkedUploadService chunkedUploadService;
 
     @Operation(summary = "上传文件")
     @PostMapping(value = "/upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public Result<FileUploadResponse> upload(
+    public Result<FileUploadVo> upload(
             @RequestParam("file") MultipartFile file,
             @RequestParam(value = "businessType", required = false) String businessType,
-            @RequestParam(value = "businessId", required = false) Long businessId) {
-        if (file == null || file.isEmpty()) {
-            throw new BusinessException("上传文件不能为空");
+            @RequestParam(value = "businessId", required = false) Long businessId,
+            ApprovalUserPrincipal principal) {
+        return Result.success(fileService.upload(file, businessType, businessId, principal.getUserId()));
+    }
+
+    /**
+     * 请求体即文件内容，Content-Type 为文件的 MIME 类型；不经过 multipart 解析与临时文件
+     */
+    @Operation(summary = "流式上传文件")
+    @PostMapping("/upload/stream")
+    public Result<FileUploadVo> uploadStream(
+            @RequestParam("fileName") String fileName,
+            @RequestParam(value = "businessType", required = false) String businessType,
+            @RequestParam(value = "businessId", required = false) Long businessId,
+            HttpServletRequest request,
+            ApprovalUserPrincipal principal) {
+        try (InputStream body = request.getInputStream()) {
+            return Result.success(fileService.uploadStream(body, request.getContentLengthLong(), fileName,
+                    request.getContentType(), businessType, businessId, principal.getUserId()));
+        } catch (IOException e) {
+            throw new BusinessException("文件上传失败，请稍后重试");
         }
+    }
 
-        LocalDate today = LocalDate.now();
-        Path baseDir = Paths.get(resolveUploadPath()).toAbsolutePath().normalize();
-        Path targetDir = baseDir.resolve(Paths.get(String.valueOf(today.getYear()), String.format("%02d", today.getMonthValue())));
-        try {
-            Files.createDirectories(targetDir);
-            String originalFilename = file.getOriginalFilename();
-            String ext = StringUtils.getFilenameExtension(originalFilename);
-            String newName = UUID.randomUUID().toString().replace("-", "");
-            if (StringUtils.hasText(ext)) {
-                newName = newName + "." + ext.toLowerCase();
-            }
-            Path targetFile = targetDir.resolve(newName);
-            file.transferTo(targetFile.toFile());
+    @Operation(summary = "创建分片上传")
+    @PostMapping("/chunked")
+    public Result<ChunkedUploadVo> initChunkedUpload(@Valid @RequestBody ChunkedUploadInitDto dto,
+            ApprovalUserPrincipal principal) {
+        return Result.success(chunkedUploadService.init(dto, principal.getUserId()));
+    }
 
-            String relativePath = String.format("/upload/%d/%02d/%s", today.getYear(), today.getMonthValue(), newName);
-            String fileUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
-                    .path(relativePath)
-                    .toUriString();
+    @Operation(summary = "查询分片上传进度")
+    @GetMapping("/chunked/{uploadId}")
+    public Result<ChunkedUploadVo> getChunkedUpload(@PathVariable String uploadId, ApprovalUserPrincipal principal) {
+        return Result.success(chunkedUploadService.getStatus(uploadId, principal.getUserId()));
+    }
 
-            FileUploadResponse response = new FileUploadResponse();
-            response.setFileName(StringUtils.hasText(originalFilename) ? originalFilename : newName);
-            response.setFilePath(relativePath);
-            response.setFileUrl(fileUrl);
-            response.setFileSize(file.getSize());
-            response.setContentType(file.getContentType());
-            response.setBusinessType(businessType);
-            response.setBusinessId(businessId);
-            return Result.success(response);
+    /**
+     * 请求体即分片内容，X-Chunk-Sha256 为分片内容的 SHA-256（十六进制）；分片可并行上传，失败时单独重传
+     */
+    @Operation(summary = "上传分片")
+    @PutMapping("/chunked/{uploadId}/chunks/{chunkIndex}")
+    public Result<Void> uploadChunk(
+            @PathVariable String uploadId,
+            @PathVariable int chunkIndex,
+            @RequestHeader(value = CHUNK_SHA256_HEADER, required = false) String sha256,
+            HttpServletRequest request,
+            ApprovalUserPrincipal principal) {
+        try (InputStream body = request.getInputStream()) {
+            chunkedUploadService.uploadChunk(uploadId, chunkIndex, body, sha256, principal.getUserId());
+            return Result.success();
         } catch (IOException e) {
-            throw new BusinessException("文件上传失败，请稍后重试");
+            throw new BusinessException("分片上传失败，请重传该分片");
         }
     }
 
-    private String resolveUploadPath() {
-        String uploadPath = fileStorageProperties.getUploadPath();
-        return StringUtils.hasText(uploadPath) ? uploadPath : "upload";
+    @Operation(summary = "完成分片上传")
+    @PostMapping("/chunked/{uploadId}/complete")
+    public Result<FileUploadVo> completeChunkedUpload(
+            @PathVariable String uploadId,
+            @RequestParam(value = "sha256", required = false) String sha256,
+            ApprovalUserPrincipal principal) {
+        return Result.success(chunkedUploadService.complete(uploadId, sha256, principal.getUserId()));
+    }
+
+    @Operation(summary = "取消分片上传")
+    @DeleteMapping("/chunked/{uploadId}")
+    public Result<Void> abortChunkedUpload(@PathVariable String uploadId, ApprovalUserPrincipal principal) {
+        chunkedUploadService.abort(uploadId, principal.getUserId());
+        return Result.success();
     }
 
-    @Data
-    public static class FileUploadResponse {
-        private String fileName;
-        private String filePath;
-        private String fileUrl;
-        private Long fileSize;
-        private String contentType;
-        private String businessType;
-        private Long businessId;
+    @Operation(summary = "删除文件")
+    @DeleteMapping("/{fileId}")
+    public Result<Void> deleteFile(@PathVariable Long fileId, ApprovalUserPrincipal principal) {
+        fileService.deleteFile(fileId, principal.getUserId());
+        return Result.success();
     }
 }
@@ -0,0 +1,78 @@
+package com.approval.module.system.converter;
+
+import com.approval.module.system.cache.DeptCache;
+import com.approval.module.system.cache.PostCache;
+import com.approval.module.system.cache.PostPermissionCache;
+import com.approval.module.system.entity.Dept;
+import com.approval.module.system.entity.Post;
+import com.approval.module.system.entity.User;
+import com.approval.module.system.vo.UserVo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.BeanUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 用户视图批量转换
+ * 先收集整页用户的部门、岗位ID，再分别批量解析，未命中缓存的条目各用一次 IN 查询加载
+ */
+@Component
+@RequiredArgsConstructor
+public class UserVoConverter {
+
+    private final DeptCache deptCache;
+    private final PostCache postCache;
+    private final PostPermissionCache postPermissionCache;
+
+    public UserVo toUserVo(User user) {
+        return toUserVos(Collections.singletonList(user)).get(0);
+    }
+
+    public List<UserVo> toUserVos(List<User> users) {
+        if (users == null || users.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<Long> deptIds = users.stream()
+                .map(User::getDeptId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<Long> postIds = users.stream()
+                .map(User::getPostId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        Map<Long, Dept> deptMap = deptCache.getAll(deptIds);
+        Map<Long, Post> postMap = postCache.getAll(postIds);
+        Map<Long, List<String>> permissionMap = postPermissionCache.getAllCodes(postIds);
+
+        List<UserVo> result = new ArrayList<>(users.size());
+        for (User user : users) {
+            UserVo vo = new UserVo();
+            BeanUtils.copyProperties(user, vo);
+
+            Dept dept = user.getDeptId() != null ? deptMap.get(user.getDeptId()) : null;
+            if (dept != null) {
+                vo.setDeptName(dept.getDeptName());
+            }
+
+            Post post = user.getPostId() != null ? postMap.get(user.getPostId()) : null;
+            if (post != null) {
+                vo.setPostName(post.getPostName());
+            }
+
+            List<String> permissions = user.getPostId() != null ? permissionMap.get(user.getPostId()) : null;
+            vo.setPermissions(permissions != null ? permissions : Collections.emptyList());
+
+            result.add(vo);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,23 @@
+package com.approval.module.system.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class ChunkedUploadInitDto {
+
+    @NotBlank(message = "文件名不能为空")
+    private String fileName;
+
+    @NotNull(message = "文件大小不能为空")
+    @Positive(message = "文件大小必须大于0")
+    private Long fileSize;
+
+    private String contentType;
+
+    private String businessType;
+
+    private Long businessId;
+}
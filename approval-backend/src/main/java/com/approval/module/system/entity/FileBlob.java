@@ -0,0 +1,29 @@
+package com.approval.module.system.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 文件存储对象（按内容 SHA-256 去重，refCount 为引用它的文件记录数）
+ */
+@Data
+@TableName("sys_file_blob")
+public class FileBlob {
+
+    @TableId(type = IdType.INPUT)
+    private String sha256;
+
+    private String storagePath;
+
+    private Long fileSize;
+
+    private Integer refCount;
+
+    private LocalDateTime createTime;
+
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,39 @@
+package com.approval.module.system.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 分片上传会话（合并完成后删除）
+ */
+@Data
+@TableName("sys_file_upload")
+public class FileUpload {
+
+    @TableId(type = IdType.INPUT)
+    private String uploadId;
+
+    private Long uploaderId;
+
+    private String fileName;
+
+    private String contentType;
+
+    private Long fileSize;
+
+    private Integer chunkSize;
+
+    private Integer chunkCount;
+
+    private String businessType;
+
+    private Long businessId;
+
+    private Integer status; // 0=上传中 1=合并中
+
+    private LocalDateTime createTime;
+}
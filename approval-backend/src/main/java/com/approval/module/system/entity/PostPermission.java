@@ -0,0 +1,20 @@
+package com.approval.module.system.entity;
+
+import lombok.Data;
+
+/**
+ * 岗位权限关联（联表查询结果）
+ */
+@Data
+public class PostPermission {
+
+    private Long postId;
+
+    private Long permissionId;
+
+    private String permissionCode;
+
+    private String permissionName;
+
+    private String description;
+}
@@ -0,0 +1,41 @@
+package com.approval.module.system.entity;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableLogic;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 文件实体（一次上传一条记录，内容相同的文件共享同一个存储对象）
+ */
+@Data
+@TableName("sys_file")
+public class SysFile {
+
+    @TableId(type = IdType.AUTO)
+    private Long fileId;
+
+    private String fileName;
+
+    private String filePath;
+
+    private Long fileSize;
+
+    private String fileType;
+
+    private String businessType;
+
+    private Long businessId;
+
+    private Long uploaderId;
+
+    private String sha256;
+
+    @TableLogic
+    private Integer delFlag;
+
+    private LocalDateTime createTime;
+}
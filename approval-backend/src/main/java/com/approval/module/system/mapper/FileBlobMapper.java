@@ -0,0 +1,43 @@
+package com.approval.module.system.mapper;
+
+import com.approval.module.system.entity.FileBlob;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * 文件存储对象Mapper
+ */
+@Mapper
+public interface FileBlobMapper extends BaseMapper<FileBlob> {
+
+    /**
+     * 增加一次引用，存储对象不存在时插入（引用数为 1）
+     */
+    @Insert("INSERT INTO sys_file_blob (sha256, storage_path, file_size, ref_count) " +
+            "VALUES (#{sha256}, #{storagePath}, #{fileSize}, 1) " +
+            "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1")
+    int incrementReference(@Param("sha256") String sha256, @Param("storagePath") String storagePath,
+            @Param("fileSize") long fileSize);
+
+    /**
+     * 为仍被引用的存储对象增加一次引用，返回 0 表示存储对象不存在或正在被回收
+     */
+    @Update("UPDATE sys_file_blob SET ref_count = ref_count + 1 WHERE sha256 = #{sha256} AND ref_count > 0")
+    int addReference(@Param("sha256") String sha256);
+
+    /**
+     * 减少一次引用
+     */
+    @Update("UPDATE sys_file_blob SET ref_count = ref_count - 1 WHERE sha256 = #{sha256} AND ref_count > 0")
+    int decrementReference(@Param("sha256") String sha256);
+
+    /**
+     * 删除已无引用的存储对象，返回 1 表示本次删除了记录，调用方随后删除磁盘文件
+     */
+    @Delete("DELETE FROM sys_file_blob WHERE sha256 = #{sha256} AND ref_count = 0")
+    int deleteUnreferenced(@Param("sha256") String sha256);
+}
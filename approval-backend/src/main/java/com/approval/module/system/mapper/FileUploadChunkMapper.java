@@ -0,0 +1,49 @@
+package com.approval.module.system.mapper;
+
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * 分片上传已接收分片Mapper
+ */
+@Mapper
+public interface FileUploadChunkMapper {
+
+    /**
+     * 记录已写入并校验通过的分片，重传同一分片时覆盖校验值
+     */
+    @Insert("INSERT INTO sys_file_upload_chunk (upload_id, chunk_index, sha256) " +
+            "VALUES (#{uploadId}, #{chunkIndex}, #{sha256}) " +
+            "ON DUPLICATE KEY UPDATE sha256 = VALUES(sha256), create_time = CURRENT_TIMESTAMP")
+    int recordChunk(@Param("uploadId") String uploadId, @Param("chunkIndex") int chunkIndex,
+            @Param("sha256") String sha256);
+
+    /**
+     * 查询已接收的分片序号
+     */
+    @Select("SELECT chunk_index FROM sys_file_upload_chunk WHERE upload_id = #{uploadId} ORDER BY chunk_index")
+    List<Integer> selectChunkIndexes(@Param("uploadId") String uploadId);
+
+    /**
+     * 统计已接收的分片数
+     */
+    @Select("SELECT COUNT(*) FROM sys_file_upload_chunk WHERE upload_id = #{uploadId}")
+    int countChunks(@Param("uploadId") String uploadId);
+
+    /**
+     * 删除单个分片记录（分片内容被覆盖前调用，覆盖失败时该分片视为未上传）
+     */
+    @Delete("DELETE FROM sys_file_upload_chunk WHERE upload_id = #{uploadId} AND chunk_index = #{chunkIndex}")
+    int deleteChunk(@Param("uploadId") String uploadId, @Param("chunkIndex") int chunkIndex);
+
+    /**
+     * 删除会话的全部分片记录
+     */
+    @Delete("DELETE FROM sys_file_upload_chunk WHERE upload_id = #{uploadId}")
+    int deleteByUploadId(@Param("uploadId") String uploadId);
+}
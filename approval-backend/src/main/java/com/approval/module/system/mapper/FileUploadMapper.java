@@ -0,0 +1,21 @@
+package com.approval.module.system.mapper;
+
+import com.approval.module.system.entity.FileUpload;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * 分片上传会话Mapper
+ */
+@Mapper
+public interface FileUploadMapper extends BaseMapper<FileUpload> {
+
+    /**
+     * 按预期状态切换会话状态，返回 0 表示会话已不存在或状态已被并发修改
+     */
+    @Update("UPDATE sys_file_upload SET status = #{toStatus} WHERE upload_id = #{uploadId} AND status = #{fromStatus}")
+    int transitionStatus(@Param("uploadId") String uploadId, @Param("fromStatus") int fromStatus,
+            @Param("toStatus") int toStatus);
+}
@@ -1,27 +1,41 @@
 package com.approval.module.system.mapper;
 
 import com.approval.module.system.entity.Permission;
+import com.approval.module.system.entity.PostPermission;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.*;
 
+import java.util.Collection;
 import java.util.List;
 
 @Mapper
 public interface PermissionMapper extends BaseMapper<Permission> {
 
-    @Select("SELECT p.* FROM sys_permission p " +
+    @Select("<script>" +
+            "SELECT pp.post_id, p.permission_id, p.permission_code, p.permission_name, p.description " +
+            "FROM sys_permission p " +
             "INNER JOIN sys_post_permission pp ON p.permission_id = pp.permission_id " +
-            "WHERE pp.post_id = #{postId} AND p.status = 1 AND p.del_flag = 0")
-    List<Permission> selectPermissionsByPostId(@Param("postId") Long postId);
-
-    @Select("SELECT p.permission_code FROM sys_permission p " +
-            "INNER JOIN sys_post_permission pp ON p.permission_id = pp.permission_id " +
-            "WHERE pp.post_id = #{postId} AND p.status = 1 AND p.del_flag = 0")
-    List<String> selectPermissionCodesByPostId(@Param("postId") Long postId);
+            "WHERE pp.post_id IN " +
+            "<foreach collection='postIds' item='postId' open='(' separator=',' close=')'>#{postId}</foreach> " +
+            "AND p.status = 1 AND p.del_flag = 0" +
+            "</script>")
+    List<PostPermission> selectPostPermissionsByPostIds(@Param("postIds") Collection<Long> postIds);
 
     @Delete("DELETE FROM sys_post_permission WHERE post_id = #{postId}")
     void deletePostPermissions(@Param("postId") Long postId);
 
-    @Insert("INSERT INTO sys_post_permission (post_id, permission_id) VALUES (#{postId}, #{permissionId})")
-    void insertPostPermission(@Param("postId") Long postId, @Param("permissionId") Long permissionId);
+    @Select("SELECT permission_id FROM sys_post_permission WHERE post_id = #{postId}")
+    List<Long> selectPermissionIdsByPostId(@Param("postId") Long postId);
+
+    @Delete("<script>" +
+            "DELETE FROM sys_post_permission WHERE post_id = #{postId} AND permission_id IN " +
+            "<foreach collection='permissionIds' item='permissionId' open='(' separator=',' close=')'>#{permissionId}</foreach>" +
+            "</script>")
+    int deletePostPermissionsByIds(@Param("postId") Long postId, @Param("permissionIds") Collection<Long> permissionIds);
+
+    @Insert("<script>" +
+            "INSERT INTO sys_post_permission (post_id, permission_id) VALUES " +
+            "<foreach collection='permissionIds' item='permissionId' separator=','>(#{postId}, #{permissionId})</foreach>" +
+            "</script>")
+    int insertPostPermissions(@Param("postId") Long postId, @Param("permissionIds") Collection<Long> permissionIds);
 }
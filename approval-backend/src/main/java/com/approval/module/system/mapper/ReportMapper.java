@@ -0,0 +1,97 @@
+package com.approval.module.system.mapper;
+
+import lombok.Data;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.ResultType;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 统计报表Mapper，聚合在数据库侧完成，只返回分组后的计数行
+ */
+@Mapper
+public interface ReportMapper {
+
+    /**
+     * 按部门统计在职人数
+     */
+    @Select("SELECT dept_id AS group_id, COUNT(*) AS cnt FROM sys_user " +
+            "WHERE status = 1 AND del_flag = 0 AND dept_id IS NOT NULL " +
+            "GROUP BY dept_id")
+    List<GroupCountRow> countActiveUsersByDept();
+
+    /**
+     * 按岗位统计在职人数
+     */
+    @Select("SELECT post_id AS group_id, COUNT(*) AS cnt FROM sys_user " +
+            "WHERE status = 1 AND del_flag = 0 AND post_id IS NOT NULL " +
+            "GROUP BY post_id")
+    List<GroupCountRow> countActiveUsersByPost();
+
+    /**
+     * 按部门、申请类型、状态统计 [start, end) 内提交的申请数，dept_id 为空时 deptId 为 0
+     */
+    @Select("SELECT COALESCE(dept_id, 0) AS dept_id, app_type, status, COUNT(*) AS cnt " +
+            "FROM bpm_application " +
+            "WHERE del_flag = 0 AND submit_time >= #{start} AND submit_time < #{end} " +
+            "GROUP BY dept_id, app_type, status")
+    List<AppStatRow> countApplicationsByDeptTypeStatus(@Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end);
+
+    /**
+     * 按岗位统计部门成员人数（含当月在该部门提交过申请的外部门人员），post_id 为空时 groupId 为 -1
+     */
+    @Select("SELECT COALESCE(u.post_id, -1) AS group_id, COUNT(*) AS cnt FROM sys_user u " +
+            "WHERE u.del_flag = 0 AND (u.dept_id = #{deptId} OR u.user_id IN (" +
+            "SELECT a.applicant_id FROM bpm_application a " +
+            "WHERE a.dept_id = #{deptId} AND a.del_flag = 0 AND a.submit_time >= #{start} AND a.submit_time < #{end})) " +
+            "GROUP BY COALESCE(u.post_id, -1)")
+    List<GroupCountRow> countDeptMembersByPost(@Param("deptId") Long deptId,
+            @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    /**
+     * 流式读取部门 [start, end) 内提交的申请及其请假天数、报销金额，缺少详情的申请不返回
+     * fetchSize 为 Integer.MIN_VALUE 时 MySQL 驱动逐行读取，不在内存中缓存整个结果集
+     */
+    @Select("SELECT a.applicant_id, a.app_type, l.days, r.amount " +
+            "FROM bpm_application a " +
+            "LEFT JOIN bpm_leave_application l ON l.app_id = a.app_id " +
+            "LEFT JOIN bpm_reimburse_application r ON r.app_id = a.app_id " +
+            "WHERE a.dept_id = #{deptId} AND a.del_flag = 0 " +
+            "AND a.submit_time >= #{start} AND a.submit_time < #{end} " +
+            "AND ((a.app_type = 'leave' AND l.app_id IS NOT NULL) " +
+            "OR (a.app_type = 'reimburse' AND r.app_id IS NOT NULL))")
+    @Options(resultSetType = ResultSetType.FORWARD_ONLY, fetchSize = Integer.MIN_VALUE)
+    @ResultType(DeptAppRow.class)
+    void streamDeptApplications(@Param("deptId") Long deptId, @Param("start") LocalDateTime start,
+            @Param("end") LocalDateTime end, ResultHandler<DeptAppRow> handler);
+
+    @Data
+    class GroupCountRow {
+        private long groupId;
+        private long cnt;
+    }
+
+    @Data
+    class AppStatRow {
+        private long deptId;
+        private String appType;
+        private int status;
+        private long cnt;
+    }
+
+    @Data
+    class DeptAppRow {
+        private long applicantId;
+        private String appType;
+        private BigDecimal days;
+        private BigDecimal amount;
+    }
+}
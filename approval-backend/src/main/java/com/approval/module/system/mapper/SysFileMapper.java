@@ -0,0 +1,31 @@
+package com.approval.module.system.mapper;
+
+import com.approval.module.system.entity.SysFile;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * 文件Mapper
+ */
+@Mapper
+public interface SysFileMapper extends BaseMapper<SysFile> {
+
+    /**
+     * 把上传人一条未关联业务的文件记录关联到业务数据，返回 0 表示没有可关联的记录
+     */
+    @Update("UPDATE sys_file SET business_type = #{businessType}, business_id = #{businessId} " +
+            "WHERE sha256 = #{sha256} AND uploader_id = #{uploaderId} AND business_id IS NULL AND del_flag = 0 " +
+            "LIMIT 1")
+    int bindUnbound(@Param("sha256") String sha256, @Param("uploaderId") Long uploaderId,
+            @Param("businessType") String businessType, @Param("businessId") Long businessId);
+
+    /**
+     * 逻辑删除上传人一条未关联业务的文件记录，返回 0 表示记录已被关联或已删除
+     * 关联与删除以同一行上的条件更新互斥，提交申请时并发关联的记录不会被删掉
+     */
+    @Update("UPDATE sys_file SET del_flag = 1 " +
+            "WHERE file_id = #{fileId} AND uploader_id = #{uploaderId} AND business_id IS NULL AND del_flag = 0")
+    int deleteUnbound(@Param("fileId") Long fileId, @Param("uploaderId") Long uploaderId);
+}
@@ -1,9 +1,35 @@
 package com.approval.module.system.mapper;
 
 import com.approval.module.system.entity.User;
+import com.baomidou.mybatisplus.core.conditions.Wrapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.baomidou.mybatisplus.core.toolkit.Constants;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+import java.util.Map;
 
 @Mapper
 public interface UserMapper extends BaseMapper<User> {
+
+    /**
+     * 查询已分配部门、岗位持有指定权限的启用用户
+     */
+    @Select("SELECT u.* FROM sys_user u " +
+            "INNER JOIN sys_post_permission pp ON pp.post_id = u.post_id " +
+            "INNER JOIN sys_permission p ON p.permission_id = pp.permission_id " +
+            "WHERE p.permission_code = #{permissionCode} AND p.status = 1 AND p.del_flag = 0 " +
+            "AND u.status = 1 AND u.del_flag = 0 AND u.dept_id IS NOT NULL")
+    List<User> selectActiveUsersWithPermission(@Param("permissionCode") String permissionCode);
+
+    /**
+     * 按过滤条件输出执行计划，用于估算列表总数
+     */
+    @Select("<script>" +
+            "EXPLAIN SELECT user_id FROM sys_user WHERE del_flag = 0 " +
+            "<if test='ew != null and ew.nonEmptyOfWhere'>AND ${ew.sqlSegment}</if>" +
+            "</script>")
+    List<Map<String, Object>> explainSelect(@Param(Constants.WRAPPER) Wrapper<User> wrapper);
 }
@@ -1,5 +1,7 @@
 package com.approval.module.system.service;
 
+import com.approval.common.result.CountAwarePage;
+import com.approval.common.result.CursorPage;
 import com.approval.module.system.dto.AssignPostDto;
 import com.approval.module.system.dto.DeptDto;
 import com.approval.module.system.dto.PostDto;
@@ -14,7 +16,10 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 
 public interface IAdminService {
 
-    Page<UserVo> getUserList(Integer pageNum, Integer pageSize, String username, String realName, Long deptId, Integer status);
+    CountAwarePage<UserVo> getUserList(Integer pageNum, Integer pageSize, String username, String realName, Long deptId, Integer status,
+            boolean exactCount);
+
+    CursorPage<UserVo> getUserListByCursor(String cursor, Integer pageSize, String username, String realName, Long deptId, Integer status);
 
     UserVo getUserById(Long userId);
 
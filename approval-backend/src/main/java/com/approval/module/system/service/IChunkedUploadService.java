@@ -0,0 +1,40 @@
+package com.approval.module.system.service;
+
+import com.approval.module.system.dto.ChunkedUploadInitDto;
+import com.approval.module.system.vo.ChunkedUploadVo;
+import com.approval.module.system.vo.FileUploadVo;
+
+import java.io.InputStream;
+
+/**
+ * 分片上传服务接口（断点续传）
+ */
+public interface IChunkedUploadService {
+
+    /**
+     * 创建上传会话并按文件大小预分配临时文件
+     */
+    ChunkedUploadVo init(ChunkedUploadInitDto dto, Long uploaderId);
+
+    /**
+     * 查询会话与已接收的分片，客户端续传时只补传缺少的分片
+     */
+    ChunkedUploadVo getStatus(String uploadId, Long uploaderId);
+
+    /**
+     * 把一个分片写入临时文件的对应偏移并校验 SHA-256，同一会话的分片可以并行上传
+     */
+    void uploadChunk(String uploadId, int chunkIndex, InputStream body, String sha256, Long uploaderId);
+
+    /**
+     * 全部分片到齐后校验整个文件并登记为附件
+     *
+     * @param sha256 客户端计算的整个文件的 SHA-256，可为空
+     */
+    FileUploadVo complete(String uploadId, String sha256, Long uploaderId);
+
+    /**
+     * 取消上传，删除会话与临时文件
+     */
+    void abort(String uploadId, Long uploaderId);
+}
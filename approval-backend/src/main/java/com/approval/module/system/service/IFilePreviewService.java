@@ -0,0 +1,26 @@
+package com.approval.module.system.service;
+
+import java.nio.file.Path;
+
+/**
+ * 图片缩略图与预览图服务接口
+ * 生成结果与原文件放在同一目录：{原文件名}.thumb.jpg、{原文件名}.preview.jpg
+ */
+public interface IFilePreviewService {
+
+    String THUMBNAIL_SUFFIX = ".thumb.jpg";
+
+    String PREVIEW_SUFFIX = ".preview.jpg";
+
+    /**
+     * 提交生成任务，只处理 ImageIO 可解码的图片
+     *
+     * @return 已生成或已进入队列返回 true；非图片、未启用或队列已满返回 false
+     */
+    boolean submit(Path original, String contentType);
+
+    /**
+     * 删除原文件对应的缩略图与预览图
+     */
+    void delete(Path original);
+}
@@ -0,0 +1,50 @@
+package com.approval.module.system.service;
+
+import com.approval.module.system.vo.FileAttachmentVo;
+import com.approval.module.system.vo.FileUploadVo;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * 文件服务接口
+ */
+public interface IFileService {
+
+    /**
+     * 保存 multipart 上传的文件
+     */
+    FileUploadVo upload(MultipartFile file, String businessType, Long businessId, Long uploaderId);
+
+    /**
+     * 流式上传：请求体直接写入存储目录，同时计算 SHA-256 并校验大小
+     *
+     * @param contentLength 请求声明的长度，未知时为 -1
+     */
+    FileUploadVo uploadStream(InputStream body, long contentLength, String fileName, String contentType,
+            String businessType, Long businessId, Long uploaderId);
+
+    /**
+     * 登记已在上传目录内写好并算出哈希的文件（分片上传合并后调用），文件被移入存储位置；
+     * 失败时文件保留在原位置，调用方可以再次登记；同内容的存储对象已存在时文件不会被移动，由调用方删除
+     */
+    FileUploadVo registerAssembled(Path file, long size, String sha256, String fileName, String contentType,
+            String businessType, Long businessId, Long uploaderId);
+
+    /**
+     * 把申请中引用的附件（逗号分隔的地址）关联到业务数据，关联后不能再删除
+     * 内容寻址存储的附件优先关联申请人本人未关联的上传记录，否则为该业务新增一条引用；按日期存储的文件没有文件记录，忽略
+     */
+    void bindAttachments(String attachments, String businessType, Long businessId, Long userId);
+
+    /**
+     * 删除本人上传且未关联业务的文件记录，存储对象无引用时一并删除
+     */
+    void deleteFile(Long fileId, Long userId);
+
+    /**
+     * 按 /upload/ 之后的相对路径定位附件，文件不存在时抛出 404
+     */
+    FileAttachmentVo getAttachment(String relativePath);
+}
@@ -1,12 +1,17 @@
 package com.approval.module.system.service.impl;
 
+import com.approval.common.cache.PageCountCache;
 import com.approval.common.exception.BusinessException;
-import com.approval.module.approval.entity.Application;
-import com.approval.module.approval.entity.LeaveApplication;
-import com.approval.module.approval.entity.ReimburseApplication;
-import com.approval.module.approval.mapper.ApplicationMapper;
-import com.approval.module.approval.mapper.LeaveApplicationMapper;
-import com.approval.module.approval.mapper.ReimburseApplicationMapper;
+import com.approval.common.result.CountAwarePage;
+import com.approval.common.result.CursorPage;
+import com.approval.common.utils.CursorQueryUtils;
+import com.approval.module.system.cache.ApproverIndex;
+import com.approval.module.system.cache.DeptCache;
+import com.approval.module.system.cache.DeptTree;
+import com.approval.module.system.cache.PostCache;
+import com.approval.module.system.cache.PostPermissionCache;
+import com.approval.module.system.cache.UserCache;
+import com.approval.module.system.converter.UserVoConverter;
 import com.approval.module.system.dto.AssignPostDto;
 import com.approval.module.system.dto.DeptDto;
 import com.approval.module.system.dto.PostDto;
@@ -14,10 +19,12 @@ import com.approval.module.system.dto.UserDto;
 import com.approval.module.system.entity.Dept;
 import com.approval.module.system.entity.Permission;
 import com.approval.module.system.entity.Post;
+import com.approval.module.system.entity.PostPermission;
 import com.approval.module.system.entity.User;
 import com.approval.module.system.mapper.DeptMapper;
 import com.approval.module.system.mapper.PermissionMapper;
 import com.approval.module.system.mapper.PostMapper;
+import com.approval.module.system.mapper.ReportMapper;
 import com.approval.module.system.mapper.UserMapper;
 import com.approval.module.system.service.IAdminService;
 import com.approval.module.system.vo.DeptVo;
@@ -39,13 +46,11 @@ import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -57,31 +62,51 @@ public class AdminServiceImpl implements IAdminService {
     private final DeptMapper deptMapper;
     private final PostMapper postMapper;
     private final PermissionMapper permissionMapper;
-    private final ApplicationMapper applicationMapper;
-    private final LeaveApplicationMapper leaveApplicationMapper;
-    private final ReimburseApplicationMapper reimburseApplicationMapper;
+    private final ReportMapper reportMapper;
     private final PasswordEncoder passwordEncoder;
+    private final DeptCache deptCache;
+    private final DeptTree deptTree;
+    private final UserCache userCache;
+    private final ApproverIndex approverIndex;
+    private final PostCache postCache;
+    private final PostPermissionCache postPermissionCache;
+    private final UserVoConverter userVoConverter;
+    private final PageCountCache pageCountCache;
 
     @Override
-    public Page<UserVo> getUserList(Integer pageNum, Integer pageSize, String username, String realName, Long deptId, Integer status) {
-        Page<User> page = new Page<>(pageNum, pageSize);
+    public CountAwarePage<UserVo> getUserList(Integer pageNum, Integer pageSize, String username, String realName, Long deptId, Integer status,
+            boolean exactCount) {
+        CountAwarePage<User> page = new CountAwarePage<>(pageNum, pageSize);
+        userMapper.selectPage(page, userFilter(username, realName, deptId, status)
+                .orderByDesc(User::getCreateTime));
+
+        LambdaQueryWrapper<User> countWrapper = userFilter(username, realName, deptId, status);
+        pageCountCache.fillTotal(page, PageCountCache.key("adminUsers", username, realName, deptId, status), exactCount,
+                () -> userMapper.selectCount(countWrapper),
+                () -> userMapper.explainSelect(countWrapper));
+
+        return CountAwarePage.of(page, userVoConverter.toUserVos(page.getRecords()));
+    }
+
+    @Override
+    public CursorPage<UserVo> getUserListByCursor(String cursor, Integer pageSize, String username, String realName, Long deptId, Integer status) {
+        int size = CursorPage.normalizeSize(pageSize);
+
+        LambdaQueryWrapper<User> wrapper = userFilter(username, realName, deptId, status);
+        CursorQueryUtils.seekDesc(wrapper, User::getCreateTime, User::getUserId, CursorPage.Cursor.decode(cursor), size);
 
+        return CursorPage.of(userMapper.selectList(wrapper), size,
+                user -> new CursorPage.Cursor(user.getCreateTime(), user.getUserId()),
+                userVoConverter::toUserVos);
+    }
+
+    private LambdaQueryWrapper<User> userFilter(String username, String realName, Long deptId, Integer status) {
         LambdaQueryWrapper<User> wrapper = new LambdaQueryWrapper<>();
         wrapper.like(username != null && !username.isEmpty(), User::getUsername, username)
                 .like(realName != null && !realName.isEmpty(), User::getRealName, realName)
                 .eq(deptId != null, User::getDeptId, deptId)
-                .eq(status != null, User::getStatus, status)
-                .orderByDesc(User::getCreateTime);
-
-        Page<User> userPage = userMapper.selectPage(page, wrapper);
-        Page<UserVo> voPage = new Page<>(userPage.getCurrent(), userPage.getSize(), userPage.getTotal());
-
-        voPage.setRecords(userPage.getRecords().stream().map(user -> {
-            UserVo vo = convertToUserVo(user);
-            return vo;
-        }).collect(Collectors.toList()));
-
-        return voPage;
+                .eq(status != null, User::getStatus, status);
+        return wrapper;
     }
 
     @Override
@@ -90,7 +115,7 @@ public class AdminServiceImpl implements IAdminService {
         if (user == null) {
             throw new BusinessException(404, "用户不存在");
         }
-        return convertToUserVo(user);
+        return userVoConverter.toUserVo(user);
     }
 
     @Override
@@ -114,6 +139,7 @@ public class AdminServiceImpl implements IAdminService {
         user.setStatus(dto.getStatus() != null ? dto.getStatus() : 1);
 
         userMapper.insert(user);
+        approverIndex.invalidate();
     }
 
     @Override
@@ -149,6 +175,8 @@ public class AdminServiceImpl implements IAdminService {
         user.setStatus(dto.getStatus());
 
         userMapper.updateById(user);
+        userCache.invalidate(user.getUserId());
+        approverIndex.invalidate();
     }
 
     @Override
@@ -164,54 +192,46 @@ public class AdminServiceImpl implements IAdminService {
         }
 
         userMapper.deleteById(userId);
+        userCache.invalidate(userId);
+        approverIndex.invalidate();
     }
 
     @Override
     public Page<DeptVo> getDeptList(Integer pageNum, Integer pageSize, String deptName, Integer status) {
-        Page<Dept> page = new Page<>(pageNum, pageSize);
-
-        LambdaQueryWrapper<Dept> wrapper = new LambdaQueryWrapper<>();
-        wrapper.like(deptName != null && !deptName.isEmpty(), Dept::getDeptName, deptName)
-                .eq(status != null, Dept::getStatus, status)
-                .orderByAsc(Dept::getOrderNum);
-
-        Page<Dept> deptPage = deptMapper.selectPage(page, wrapper);
-        Page<DeptVo> voPage = new Page<>(deptPage.getCurrent(), deptPage.getSize(), deptPage.getTotal());
-
-        voPage.setRecords(deptPage.getRecords().stream().map(dept -> {
-            DeptVo vo = new DeptVo();
-            org.springframework.beans.BeanUtils.copyProperties(dept, vo);
-
-            if (dept.getParentId() != null && dept.getParentId() != 0) {
-                Dept parentDept = deptMapper.selectById(dept.getParentId());
-                if (parentDept != null) {
-                    vo.setParentName(parentDept.getDeptName());
-                }
-            }
+        // 部门数据量小，直接在部门树快照上过滤、分页，不访问数据库
+        List<Dept> matched = deptTree.list().stream()
+                .filter(dept -> deptName == null || deptName.isEmpty()
+                        || (dept.getDeptName() != null && dept.getDeptName().contains(deptName)))
+                .filter(dept -> status == null || status.equals(dept.getStatus()))
+                .collect(Collectors.toList());
 
-            return vo;
-        }).collect(Collectors.toList()));
+        Page<DeptVo> voPage = new Page<>(pageNum, pageSize, matched.size());
+        int from = (int) Math.min(Math.max(voPage.offset(), 0), matched.size());
+        int to = voPage.getSize() < 0 ? matched.size() : (int) Math.min(from + voPage.getSize(), matched.size());
+        voPage.setRecords(matched.subList(from, to).stream()
+                .map(this::convertToDeptVo)
+                .collect(Collectors.toList()));
 
         return voPage;
     }
 
     @Override
     public DeptVo getDeptById(Long deptId) {
-        Dept dept = deptMapper.selectById(deptId);
+        Dept dept = deptTree.get(deptId);
         if (dept == null) {
             throw new BusinessException(404, "部门不存在");
         }
+        return convertToDeptVo(dept);
+    }
 
+    private DeptVo convertToDeptVo(Dept dept) {
         DeptVo vo = new DeptVo();
         org.springframework.beans.BeanUtils.copyProperties(dept, vo);
 
-        if (dept.getParentId() != null && dept.getParentId() != 0) {
-            Dept parentDept = deptMapper.selectById(dept.getParentId());
-            if (parentDept != null) {
-                vo.setParentName(parentDept.getDeptName());
-            }
+        Dept parentDept = deptTree.getParent(dept.getDeptId());
+        if (parentDept != null) {
+            vo.setParentName(parentDept.getDeptName());
         }
-
         return vo;
     }
 
@@ -219,7 +239,7 @@ public class AdminServiceImpl implements IAdminService {
     @Transactional(rollbackFor = Exception.class)
     public void createDept(DeptDto dto) {
         if (dto.getParentId() != null && dto.getParentId() != 0) {
-            Dept parentDept = deptMapper.selectById(dto.getParentId());
+            Dept parentDept = deptTree.get(dto.getParentId());
             if (parentDept == null) {
                 throw new BusinessException("父部门不存在");
             }
@@ -235,6 +255,8 @@ public class AdminServiceImpl implements IAdminService {
         dept.setStatus(dto.getStatus() != null ? dto.getStatus() : 1);
 
         deptMapper.insert(dept);
+        deptCache.invalidate(dept.getDeptId());
+        deptTree.invalidate();
     }
 
     @Override
@@ -254,10 +276,13 @@ public class AdminServiceImpl implements IAdminService {
                 throw new BusinessException("父部门不能是自己");
             }
 
-            Dept parentDept = deptMapper.selectById(dto.getParentId());
+            Dept parentDept = deptTree.get(dto.getParentId());
             if (parentDept == null) {
                 throw new BusinessException("父部门不存在");
             }
+            if (deptTree.isInSubtree(dto.getDeptId(), dto.getParentId())) {
+                throw new BusinessException("父部门不能是自己的下级部门");
+            }
         }
 
         dept.setParentId(dto.getParentId() != null ? dto.getParentId() : 0L);
@@ -269,6 +294,8 @@ public class AdminServiceImpl implements IAdminService {
         dept.setStatus(dto.getStatus());
 
         deptMapper.updateById(dept);
+        deptCache.invalidate(dept.getDeptId());
+        deptTree.invalidate();
     }
 
     @Override
@@ -292,6 +319,8 @@ public class AdminServiceImpl implements IAdminService {
         }
 
         deptMapper.deleteById(deptId);
+        deptCache.invalidate(deptId);
+        deptTree.invalidate();
     }
 
     @Override
@@ -306,9 +335,7 @@ public class AdminServiceImpl implements IAdminService {
         Page<Post> postPage = postMapper.selectPage(page, wrapper);
         Page<PostVo> voPage = new Page<>(postPage.getCurrent(), postPage.getSize(), postPage.getTotal());
 
-        voPage.setRecords(postPage.getRecords().stream()
-            .map(this::convertToPostVo)
-            .collect(Collectors.toList()));
+        voPage.setRecords(convertToPostVos(postPage.getRecords()));
 
         return voPage;
     }
@@ -320,7 +347,7 @@ public class AdminServiceImpl implements IAdminService {
             throw new BusinessException(404, "岗位不存在");
         }
 
-        return convertToPostVo(post);
+        return convertToPostVos(Collections.singletonList(post)).get(0);
     }
 
     @Override
@@ -339,6 +366,7 @@ public class AdminServiceImpl implements IAdminService {
         post.setStatus(dto.getStatus() != null ? dto.getStatus() : 1);
 
         postMapper.insert(post);
+        postCache.invalidate(post.getPostId());
         savePostPermissions(post.getPostId(), dto.getPermissionIds());
     }
 
@@ -368,6 +396,7 @@ public class AdminServiceImpl implements IAdminService {
         post.setStatus(dto.getStatus());
 
         postMapper.updateById(post);
+        postCache.invalidate(post.getPostId());
         savePostPermissions(post.getPostId(), dto.getPermissionIds());
     }
 
@@ -387,6 +416,9 @@ public class AdminServiceImpl implements IAdminService {
 
         permissionMapper.deletePostPermissions(postId);
         postMapper.deleteById(postId);
+        postCache.invalidate(postId);
+        postPermissionCache.invalidate(postId);
+        approverIndex.invalidate();
     }
 
     @Override
@@ -411,26 +443,23 @@ public class AdminServiceImpl implements IAdminService {
         }
         user.setPostId(dto.getPostId());
         userMapper.updateById(user);
+        userCache.invalidate(user.getUserId());
+        approverIndex.invalidate();
     }
 
     @Override
     public List<DeptVo> getAllDepts() {
-        List<Dept> depts = deptMapper.selectList(
-                new LambdaQueryWrapper<Dept>().eq(Dept::getStatus, 1).orderByAsc(Dept::getOrderNum));
-        return depts.stream().map(dept -> {
-            DeptVo vo = new DeptVo();
-            org.springframework.beans.BeanUtils.copyProperties(dept, vo);
-            return vo;
-        }).collect(Collectors.toList());
+        return deptTree.list().stream()
+                .filter(dept -> Integer.valueOf(1).equals(dept.getStatus()))
+                .map(this::convertToDeptVo)
+                .collect(Collectors.toList());
     }
 
     @Override
     public List<PostVo> getAllPosts() {
         List<Post> posts = postMapper.selectList(
                 new LambdaQueryWrapper<Post>().eq(Post::getStatus, 1).orderByAsc(Post::getPostSort));
-        return posts.stream()
-            .map(this::convertToPostVo)
-            .collect(Collectors.toList());
+        return convertToPostVos(posts);
     }
 
         @Override
@@ -451,61 +480,41 @@ public class AdminServiceImpl implements IAdminService {
         ReportSummaryVo vo = new ReportSummaryVo();
         vo.setMonth(yearMonth.toString());
 
-        List<User> activeUsers = userMapper.selectList(
-            new LambdaQueryWrapper<User>().eq(User::getStatus, 1));
-
-        Map<Long, Long> deptCount = activeUsers.stream()
-            .filter(user -> user.getDeptId() != null)
-            .collect(Collectors.groupingBy(User::getDeptId, Collectors.counting()));
-        Map<Long, Long> postCount = activeUsers.stream()
-            .filter(user -> user.getPostId() != null)
-            .collect(Collectors.groupingBy(User::getPostId, Collectors.counting()));
+        // 人数与申请数均在数据库侧分组计数，内存中只处理分组结果
+        List<ReportMapper.GroupCountRow> deptCountRows = reportMapper.countActiveUsersByDept();
+        List<ReportMapper.GroupCountRow> postCountRows = reportMapper.countActiveUsersByPost();
+        List<ReportMapper.AppStatRow> appStatRows = reportMapper.countApplicationsByDeptTypeStatus(start, end);
 
-        Set<Long> deptIds = new HashSet<>(deptCount.keySet());
+        Set<Long> deptIds = new HashSet<>();
+        deptCountRows.forEach(row -> deptIds.add(row.getGroupId()));
+        appStatRows.stream()
+            .filter(row -> row.getDeptId() != 0)
+            .forEach(row -> deptIds.add(row.getDeptId()));
+        Map<Long, Dept> deptMap = deptCache.getAll(deptIds);
 
-        List<Application> monthApps = applicationMapper.selectList(
-            new LambdaQueryWrapper<Application>()
-                .ge(Application::getSubmitTime, start)
-                .lt(Application::getSubmitTime, end));
-
-        monthApps.stream()
-            .map(Application::getDeptId)
-            .filter(Objects::nonNull)
-            .forEach(deptIds::add);
-
-        Map<Long, Dept> deptMap = deptIds.isEmpty()
-            ? Collections.emptyMap()
-            : deptMapper.selectBatchIds(deptIds).stream()
-                .filter(Objects::nonNull)
-                .collect(Collectors.toMap(Dept::getDeptId, dept -> dept));
-
-        List<ReportSummaryVo.DeptEmployeeStat> deptStats = deptCount.entrySet().stream()
-            .map(entry -> {
+        List<ReportSummaryVo.DeptEmployeeStat> deptStats = deptCountRows.stream()
+            .map(row -> {
                 ReportSummaryVo.DeptEmployeeStat stat = new ReportSummaryVo.DeptEmployeeStat();
-                stat.setDeptId(entry.getKey());
-                stat.setDeptName(deptMap.containsKey(entry.getKey())
-                    ? deptMap.get(entry.getKey()).getDeptName()
-                    : "未分配");
-                stat.setUserCount(entry.getValue());
+                stat.setDeptId(row.getGroupId());
+                Dept dept = deptMap.get(row.getGroupId());
+                stat.setDeptName(dept != null ? dept.getDeptName() : "未分配");
+                stat.setUserCount(row.getCnt());
                 return stat;
             })
             .sorted(Comparator.comparingLong(ReportSummaryVo.DeptEmployeeStat::getUserCount).reversed())
             .collect(Collectors.toList());
         vo.setDeptEmployeeStats(deptStats);
 
-        Map<Long, Post> postMap = postCount.isEmpty()
-            ? Collections.emptyMap()
-            : postMapper.selectBatchIds(postCount.keySet()).stream()
-                .filter(Objects::nonNull)
-                .collect(Collectors.toMap(Post::getPostId, post -> post));
-        List<ReportSummaryVo.PostEmployeeStat> postStats = postCount.entrySet().stream()
-            .map(entry -> {
+        Map<Long, Post> postMap = postCache.getAll(postCountRows.stream()
+            .map(ReportMapper.GroupCountRow::getGroupId)
+            .collect(Collectors.toList()));
+        List<ReportSummaryVo.PostEmployeeStat> postStats = postCountRows.stream()
+            .map(row -> {
                 ReportSummaryVo.PostEmployeeStat stat = new ReportSummaryVo.PostEmployeeStat();
-                stat.setPostId(entry.getKey());
-                stat.setPostName(postMap.containsKey(entry.getKey())
-                    ? postMap.get(entry.getKey()).getPostName()
-                    : "未分配");
-                stat.setUserCount(entry.getValue());
+                stat.setPostId(row.getGroupId());
+                Post post = postMap.get(row.getGroupId());
+                stat.setPostName(post != null ? post.getPostName() : "未分配");
+                stat.setUserCount(row.getCnt());
                 return stat;
             })
             .sorted(Comparator.comparingLong(ReportSummaryVo.PostEmployeeStat::getUserCount).reversed())
@@ -513,11 +522,11 @@ public class AdminServiceImpl implements IAdminService {
         vo.setPostEmployeeStats(postStats);
 
         ReportSummaryVo.ApplicationStats appStats = new ReportSummaryVo.ApplicationStats();
-        appStats.setLeave(buildApplicationTypeStat(monthApps, "leave"));
-        appStats.setReimburse(buildApplicationTypeStat(monthApps, "reimburse"));
+        appStats.setLeave(buildApplicationTypeStat(appStatRows, "leave"));
+        appStats.setReimburse(buildApplicationTypeStat(appStatRows, "reimburse"));
         vo.setApplicationStats(appStats);
 
-        vo.setDeptMonthlyStats(buildDeptMonthlyStats(monthApps, deptMap));
+        vo.setDeptMonthlyStats(buildDeptMonthlyStats(appStatRows, deptMap));
 
         return vo;
         }
@@ -537,79 +546,62 @@ public class AdminServiceImpl implements IAdminService {
         LocalDateTime start = yearMonth.atDay(1).atStartOfDay();
         LocalDateTime end = yearMonth.plusMonths(1).atDay(1).atStartOfDay();
 
-        List<User> deptUsers = userMapper.selectList(
-            new LambdaQueryWrapper<User>().eq(User::getDeptId, deptId));
-        Map<Long, User> userMap = deptUsers.stream()
-            .collect(Collectors.toMap(User::getUserId, user -> user));
-
-        List<Application> deptApps = applicationMapper.selectList(
-            new LambdaQueryWrapper<Application>()
-                .eq(Application::getDeptId, deptId)
-                .ge(Application::getSubmitTime, start)
-                .lt(Application::getSubmitTime, end));
-
-        Set<Long> applicantIds = deptApps.stream()
-                .map(Application::getApplicantId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-
-        if (!applicantIds.isEmpty()) {
-            Set<Long> missingUserIds = applicantIds.stream()
-                    .filter(userId -> !userMap.containsKey(userId))
-                    .collect(Collectors.toSet());
-            if (!missingUserIds.isEmpty()) {
-                List<User> applicants = userMapper.selectBatchIds(missingUserIds);
-                applicants.stream()
-                        .filter(Objects::nonNull)
-                        .forEach(user -> userMap.put(user.getUserId(), user));
+        // 申请行逐行折叠进成员累加器，内存占用与成员数相关，与申请行数无关
+        Map<Long, MemberAccumulator> accumulators = new HashMap<>();
+        reportMapper.streamDeptApplications(deptId, start, end, context -> {
+            ReportMapper.DeptAppRow row = context.getResultObject();
+            MemberAccumulator accumulator = accumulators.computeIfAbsent(row.getApplicantId(), id -> new MemberAccumulator());
+            if ("leave".equals(row.getAppType())) {
+                accumulator.leaveTimes++;
+                if (row.getDays() != null) {
+                    accumulator.leaveDays = accumulator.leaveDays.add(row.getDays());
+                }
+            } else {
+                accumulator.reimburseTimes++;
+                if (row.getAmount() != null) {
+                    accumulator.reimburseAmount = accumulator.reimburseAmount.add(row.getAmount());
+                }
             }
-        }
+        });
+
+        Map<Long, User> userMap = accumulators.isEmpty()
+            ? Collections.emptyMap()
+            : userMapper.selectBatchIds(accumulators.keySet()).stream()
+                .collect(Collectors.toMap(User::getUserId, user -> user));
 
         ReportDeptDetailVo vo = new ReportDeptDetailVo();
         vo.setDeptId(deptId);
         vo.setDeptName(dept.getDeptName());
         vo.setMonth(yearMonth.toString());
-        Collection<User> statUsers = userMap.values().stream()
-                .filter(user -> (user.getDeptId() != null && user.getDeptId().equals(deptId))
-                        || applicantIds.contains(user.getUserId()))
-                .collect(Collectors.toList());
-        vo.setDeptPostStats(buildDeptPostStats(statUsers));
-        vo.setLeaveDetails(buildMemberLeaveDetails(deptApps, userMap));
-        vo.setReimburseDetails(buildMemberReimburseDetails(deptApps, userMap));
+        vo.setDeptPostStats(buildDeptPostStats(reportMapper.countDeptMembersByPost(deptId, start, end)));
+        vo.setLeaveDetails(buildMemberLeaveDetails(accumulators, userMap));
+        vo.setReimburseDetails(buildMemberReimburseDetails(accumulators, userMap));
 
         return vo;
         }
 
-    private List<ReportDeptDetailVo.DeptPostStat> buildDeptPostStats(Collection<User> users) {
-        if (users == null || users.isEmpty()) {
+    private List<ReportDeptDetailVo.DeptPostStat> buildDeptPostStats(List<ReportMapper.GroupCountRow> rows) {
+        if (rows.isEmpty()) {
             return Collections.emptyList();
         }
 
-        Map<Long, Long> grouped = users.stream()
-                .collect(Collectors.groupingBy(user -> user.getPostId() == null ? -1L : user.getPostId(), Collectors.counting()));
-
-        Set<Long> postIds = grouped.keySet().stream()
+        Map<Long, Post> postMap = postCache.getAll(rows.stream()
+                .map(ReportMapper.GroupCountRow::getGroupId)
                 .filter(postId -> postId != -1L)
-                .collect(Collectors.toSet());
-
-        Map<Long, Post> postMap = postIds.isEmpty()
-                ? Collections.emptyMap()
-                : postMapper.selectBatchIds(postIds).stream()
-                        .filter(Objects::nonNull)
-                        .collect(Collectors.toMap(Post::getPostId, post -> post));
+                .collect(Collectors.toList()));
 
         List<ReportDeptDetailVo.DeptPostStat> stats = new ArrayList<>();
-        for (Map.Entry<Long, Long> entry : grouped.entrySet()) {
+        for (ReportMapper.GroupCountRow row : rows) {
             ReportDeptDetailVo.DeptPostStat stat = new ReportDeptDetailVo.DeptPostStat();
-            if (entry.getKey().equals(-1L)) {
+            if (row.getGroupId() == -1L) {
                 stat.setPostId(null);
                 stat.setPostName("未分配岗位");
             } else {
-                stat.setPostId(entry.getKey());
-                Post post = postMap.get(entry.getKey());
+                stat.setPostId(row.getGroupId());
+                Post post = postMap.get(row.getGroupId());
                 stat.setPostName(post != null ? post.getPostName() : "未知岗位");
             }
-            stat.setUserCount(entry.getValue());
+            stat.setUserCount(row.getCnt());
             stats.add(stat);
         }
 
@@ -617,13 +609,18 @@ public class AdminServiceImpl implements IAdminService {
         return stats;
     }
 
-    private ReportSummaryVo.ApplicationTypeStat buildApplicationTypeStat(List<Application> applications, String appType) {
-        long total = applications.stream()
-                .filter(app -> appType.equals(app.getAppType()))
-                .count();
-        long approved = applications.stream()
-                .filter(app -> appType.equals(app.getAppType()) && Integer.valueOf(3).equals(app.getStatus()))
-                .count();
+    private ReportSummaryVo.ApplicationTypeStat buildApplicationTypeStat(List<ReportMapper.AppStatRow> rows, String appType) {
+        long total = 0;
+        long approved = 0;
+        for (ReportMapper.AppStatRow row : rows) {
+            if (!appType.equals(row.getAppType())) {
+                continue;
+            }
+            total += row.getCnt();
+            if (row.getStatus() == 3) {
+                approved += row.getCnt();
+            }
+        }
 
         ReportSummaryVo.ApplicationTypeStat stat = new ReportSummaryVo.ApplicationTypeStat();
         stat.setTotal(total);
@@ -632,30 +629,40 @@ public class AdminServiceImpl implements IAdminService {
         return stat;
     }
 
-    private List<ReportSummaryVo.DeptMonthlyStat> buildDeptMonthlyStats(List<Application> applications, Map<Long, Dept> deptMap) {
-        if (applications.isEmpty()) {
+    private List<ReportSummaryVo.DeptMonthlyStat> buildDeptMonthlyStats(List<ReportMapper.AppStatRow> rows, Map<Long, Dept> deptMap) {
+        if (rows.isEmpty()) {
             return Collections.emptyList();
         }
 
-        Map<Long, List<Application>> grouped = applications.stream()
-                .filter(app -> app.getDeptId() != null)
-                .collect(Collectors.groupingBy(Application::getDeptId));
+        // 单次遍历分组行，按部门累加请假数、报销数、总数、通过数
+        Map<Long, long[]> counters = new HashMap<>();
+        for (ReportMapper.AppStatRow row : rows) {
+            if (row.getDeptId() == 0) {
+                continue;
+            }
+            long[] counter = counters.computeIfAbsent(row.getDeptId(), id -> new long[4]);
+            if ("leave".equals(row.getAppType())) {
+                counter[0] += row.getCnt();
+            } else if ("reimburse".equals(row.getAppType())) {
+                counter[1] += row.getCnt();
+            }
+            counter[2] += row.getCnt();
+            if (row.getStatus() == 3) {
+                counter[3] += row.getCnt();
+            }
+        }
 
         List<ReportSummaryVo.DeptMonthlyStat> stats = new ArrayList<>();
-        for (Map.Entry<Long, List<Application>> entry : grouped.entrySet()) {
-            List<Application> deptApps = entry.getValue();
-            long leaveTotal = deptApps.stream().filter(app -> "leave".equals(app.getAppType())).count();
-            long reimburseTotal = deptApps.stream().filter(app -> "reimburse".equals(app.getAppType())).count();
-            long approved = deptApps.stream().filter(app -> Integer.valueOf(3).equals(app.getStatus())).count();
+        for (Map.Entry<Long, long[]> entry : counters.entrySet()) {
+            long[] counter = entry.getValue();
+            Dept dept = deptMap.get(entry.getKey());
 
             ReportSummaryVo.DeptMonthlyStat stat = new ReportSummaryVo.DeptMonthlyStat();
             stat.setDeptId(entry.getKey());
-            stat.setDeptName(deptMap.containsKey(entry.getKey())
-                    ? deptMap.get(entry.getKey()).getDeptName()
-                    : "未分配");
-            stat.setLeaveTotal(leaveTotal);
-            stat.setReimburseTotal(reimburseTotal);
-            stat.setApprovalRate(calculateApprovalRate(deptApps.size(), approved));
+            stat.setDeptName(dept != null ? dept.getDeptName() : "未分配");
+            stat.setLeaveTotal(counter[0]);
+            stat.setReimburseTotal(counter[1]);
+            stat.setApprovalRate(calculateApprovalRate(counter[2], counter[3]));
             stats.add(stat);
         }
 
@@ -664,80 +671,49 @@ public class AdminServiceImpl implements IAdminService {
         return stats;
     }
 
-    private List<ReportDeptDetailVo.MemberLeaveDetail> buildMemberLeaveDetails(List<Application> applications, Map<Long, User> userMap) {
-        List<Application> leaveApps = applications.stream()
-                .filter(app -> "leave".equals(app.getAppType()))
-                .collect(Collectors.toList());
-        if (leaveApps.isEmpty()) {
-            return Collections.emptyList();
-        }
-
-        List<Long> appIds = leaveApps.stream().map(Application::getAppId).collect(Collectors.toList());
-        Map<Long, LeaveApplication> leaveMap = leaveApplicationMapper.selectList(
-                new LambdaQueryWrapper<LeaveApplication>().in(LeaveApplication::getAppId, appIds))
-                .stream()
-                .collect(Collectors.toMap(LeaveApplication::getAppId, leave -> leave));
-
-        Map<Long, ReportDeptDetailVo.MemberLeaveDetail> detailMap = new HashMap<>();
-        for (Application app : leaveApps) {
-            LeaveApplication leave = leaveMap.get(app.getAppId());
-            if (leave == null) {
-                continue;
-            }
-            ReportDeptDetailVo.MemberLeaveDetail detail = detailMap.computeIfAbsent(app.getApplicantId(), id -> {
-                ReportDeptDetailVo.MemberLeaveDetail item = new ReportDeptDetailVo.MemberLeaveDetail();
-                item.setUserId(id);
-                item.setRealName(userMap.containsKey(id) ? userMap.get(id).getRealName() : "未知");
-                item.setTimes(0L);
-                item.setDays(BigDecimal.ZERO);
-                return item;
-            });
-            detail.setTimes(detail.getTimes() + 1);
-            BigDecimal days = leave.getDays() != null ? leave.getDays() : BigDecimal.ZERO;
-            detail.setDays(detail.getDays().add(days));
-        }
-
-        return detailMap.values().stream()
+    private List<ReportDeptDetailVo.MemberLeaveDetail> buildMemberLeaveDetails(Map<Long, MemberAccumulator> accumulators, Map<Long, User> userMap) {
+        return accumulators.entrySet().stream()
+                .filter(entry -> entry.getValue().leaveTimes > 0)
+                .map(entry -> {
+                    ReportDeptDetailVo.MemberLeaveDetail detail = new ReportDeptDetailVo.MemberLeaveDetail();
+                    detail.setUserId(entry.getKey());
+                    detail.setRealName(resolveRealName(userMap, entry.getKey()));
+                    detail.setTimes(entry.getValue().leaveTimes);
+                    detail.setDays(entry.getValue().leaveDays);
+                    return detail;
+                })
                 .sorted(Comparator.comparingLong(ReportDeptDetailVo.MemberLeaveDetail::getTimes).reversed())
                 .collect(Collectors.toList());
     }
 
-    private List<ReportDeptDetailVo.MemberReimburseDetail> buildMemberReimburseDetails(List<Application> applications, Map<Long, User> userMap) {
-        List<Application> reimburseApps = applications.stream()
-                .filter(app -> "reimburse".equals(app.getAppType()))
+    private List<ReportDeptDetailVo.MemberReimburseDetail> buildMemberReimburseDetails(Map<Long, MemberAccumulator> accumulators, Map<Long, User> userMap) {
+        return accumulators.entrySet().stream()
+                .filter(entry -> entry.getValue().reimburseTimes > 0)
+                .map(entry -> {
+                    ReportDeptDetailVo.MemberReimburseDetail detail = new ReportDeptDetailVo.MemberReimburseDetail();
+                    detail.setUserId(entry.getKey());
+                    detail.setRealName(resolveRealName(userMap, entry.getKey()));
+                    detail.setTimes(entry.getValue().reimburseTimes);
+                    detail.setAmount(entry.getValue().reimburseAmount);
+                    return detail;
+                })
+                .sorted(Comparator.comparingLong(ReportDeptDetailVo.MemberReimburseDetail::getTimes).reversed())
                 .collect(Collectors.toList());
-        if (reimburseApps.isEmpty()) {
-            return Collections.emptyList();
-        }
+    }
 
-        List<Long> appIds = reimburseApps.stream().map(Application::getAppId).collect(Collectors.toList());
-        Map<Long, ReimburseApplication> reimburseMap = reimburseApplicationMapper.selectList(
-                new LambdaQueryWrapper<ReimburseApplication>().in(ReimburseApplication::getAppId, appIds))
-                .stream()
-                .collect(Collectors.toMap(ReimburseApplication::getAppId, reimburse -> reimburse));
+    private String resolveRealName(Map<Long, User> userMap, Long userId) {
+        User user = userMap.get(userId);
+        return user != null ? user.getRealName() : "未知";
+    }
 
-        Map<Long, ReportDeptDetailVo.MemberReimburseDetail> detailMap = new HashMap<>();
-        for (Application app : reimburseApps) {
-            ReimburseApplication reimburse = reimburseMap.get(app.getAppId());
-            if (reimburse == null) {
-                continue;
-            }
-            ReportDeptDetailVo.MemberReimburseDetail detail = detailMap.computeIfAbsent(app.getApplicantId(), id -> {
-                ReportDeptDetailVo.MemberReimburseDetail item = new ReportDeptDetailVo.MemberReimburseDetail();
-                item.setUserId(id);
-                item.setRealName(userMap.containsKey(id) ? userMap.get(id).getRealName() : "未知");
-                item.setTimes(0L);
-                item.setAmount(BigDecimal.ZERO);
-                return item;
-            });
-            detail.setTimes(detail.getTimes() + 1);
-            BigDecimal amount = reimburse.getAmount() != null ? reimburse.getAmount() : BigDecimal.ZERO;
-            detail.setAmount(detail.getAmount().add(amount));
-        }
-
-        return detailMap.values().stream()
-                .sorted(Comparator.comparingLong(ReportDeptDetailVo.MemberReimburseDetail::getTimes).reversed())
-                .collect(Collectors.toList());
+    /**
+     * 部门报表成员累加器
+     */
+    private static final class MemberAccumulator {
+        private long leaveTimes;
+        private BigDecimal leaveDays = BigDecimal.ZERO;
+        private long reimburseTimes;
+        private BigDecimal reimburseAmount = BigDecimal.ZERO;
     }
 
     private YearMonth resolveYearMonth(String month) {
@@ -761,31 +737,54 @@ public class AdminServiceImpl implements IAdminService {
     }
 
     private void savePostPermissions(Long postId, java.util.List<Long> permissionIds) {
-        permissionMapper.deletePostPermissions(postId);
-        if (permissionIds == null || permissionIds.isEmpty()) {
-            return;
-        }
-
-        for (Long permissionId : permissionIds) {
-            Permission permission = permissionMapper.selectById(permissionId);
-            if (permission == null || permission.getStatus() == null || permission.getStatus() == 0) {
+        postPermissionCache.invalidate(postId);
+        approverIndex.invalidate();
+
+        Set<Long> requested = permissionIds == null ? Collections.emptySet() : permissionIds.stream()
+                .filter(java.util.Objects::nonNull)
+                .collect(Collectors.toCollection(java.util.LinkedHashSet::new));
+        if (!requested.isEmpty()) {
+            // 一次批量查询校验全部权限
+            List<Permission> permissions = permissionMapper.selectBatchIds(requested);
+            long enabledCount = permissions.stream()
+                    .filter(permission -> permission.getStatus() != null && permission.getStatus() != 0)
+                    .count();
+            if (enabledCount != requested.size()) {
                 throw new BusinessException("权限不存在或已禁用");
             }
-            permissionMapper.insertPostPermission(postId, permissionId);
         }
-    }
 
-    private PostVo convertToPostVo(Post post) {
-        PostVo vo = new PostVo();
-        org.springframework.beans.BeanUtils.copyProperties(post, vo);
-        List<Permission> permissionList = permissionMapper.selectPermissionsByPostId(post.getPostId());
-        if (permissionList == null) {
-            permissionList = java.util.Collections.emptyList();
+        // 只写入差异：删除不再需要的关联，插入新增的关联
+        Set<Long> current = new HashSet<>(permissionMapper.selectPermissionIdsByPostId(postId));
+        List<Long> toDelete = current.stream()
+                .filter(permissionId -> !requested.contains(permissionId))
+                .collect(Collectors.toList());
+        List<Long> toInsert = requested.stream()
+                .filter(permissionId -> !current.contains(permissionId))
+                .collect(Collectors.toList());
+
+        if (!toDelete.isEmpty()) {
+            permissionMapper.deletePostPermissionsByIds(postId, toDelete);
         }
-        vo.setPermissions(permissionList.stream()
-                .map(this::convertToPermissionVo)
+        if (!toInsert.isEmpty()) {
+            permissionMapper.insertPostPermissions(postId, toInsert);
+        }
+    }
+
+    private List<PostVo> convertToPostVos(List<Post> posts) {
+        // 整页岗位的权限一次批量解析，未命中缓存的岗位用一次 IN 查询加载
+        Map<Long, List<PostPermission>> permissionMap = postPermissionCache.getAll(posts.stream()
+                .map(Post::getPostId)
                 .collect(Collectors.toList()));
-        return vo;
+        return posts.stream().map(post -> {
+            PostVo vo = new PostVo();
+            org.springframework.beans.BeanUtils.copyProperties(post, vo);
+            List<PostPermission> permissions = permissionMap.getOrDefault(post.getPostId(), Collections.emptyList());
+            vo.setPermissions(permissions.stream()
+                    .map(this::convertToPermissionVo)
+                    .collect(Collectors.toList()));
+            return vo;
+        }).collect(Collectors.toList());
     }
 
     private PermissionVo convertToPermissionVo(Permission permission) {
@@ -794,31 +793,10 @@ public class AdminServiceImpl implements IAdminService {
         return vo;
     }
 
-    private UserVo convertToUserVo(User user) {
-        UserVo vo = new UserVo();
-        org.springframework.beans.BeanUtils.copyProperties(user, vo);
-
-        if (user.getDeptId() != null) {
-            Dept dept = deptMapper.selectById(user.getDeptId());
-            if (dept != null) {
-                vo.setDeptName(dept.getDeptName());
-            }
-        }
-
-        if (user.getPostId() != null) {
-            Post post = postMapper.selectById(user.getPostId());
-            if (post != null) {
-                vo.setPostName(post.getPostName());
-            }
-        }
-
-        List<String> permissions = java.util.Collections.emptyList();
-        if (user.getPostId() != null) {
-            List<String> codes = permissionMapper.selectPermissionCodesByPostId(user.getPostId());
-            permissions = codes != null ? codes : java.util.Collections.emptyList();
-        }
-        vo.setPermissions(permissions);
-
+    private PermissionVo convertToPermissionVo(PostPermission permission) {
+        PermissionVo vo = new PermissionVo();
+        org.springframework.beans.BeanUtils.copyProperties(permission, vo);
         return vo;
     }
+
 }
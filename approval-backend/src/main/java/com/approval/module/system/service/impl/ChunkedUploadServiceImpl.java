@@ -0,0 +1,419 @@
+package com.approval.module.system.service.impl;
+
+import com.approval.common.exception.BusinessException;
+import com.approval.common.result.ResultCode;
+import com.approval.config.FileStorageProperties;
+import com.approval.module.system.dto.ChunkedUploadInitDto;
+import com.approval.module.system.entity.FileUpload;
+import com.approval.module.system.mapper.FileUploadChunkMapper;
+import com.approval.module.system.mapper.FileUploadMapper;
+import com.approval.module.system.service.IChunkedUploadService;
+import com.approval.module.system.service.IFileService;
+import com.approval.module.system.vo.ChunkedUploadVo;
+import com.approval.module.system.vo.FileUploadVo;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * 分片上传服务实现
+ * 每个会话一个目录 {上传目录}/chunked/{uploadId}/：初始化时预分配完整大小的 data.part；
+ * 分片先流式写入同目录下的暂存文件并校验 SHA-256，校验通过后才按 序号 × 分片大小 的偏移定位写入 data.part，
+ * 重传失败不会破坏已登记分片的内容。同一会话的分片可以并行、乱序、重复上传。
+ * <p>
+ * 会话状态（上传中/合并中）保存在 sys_file_upload.status：合并先把状态切换为合并中，新的分片不再写入；
+ * 再等待已在写入 data.part 的分片结束（会话级读写锁，只在本地磁盘拷贝期间持有，不跨网络读取与哈希计算）。
+ * 会话锁只在本进程内有效：多节点部署时，同一会话的分片上传与合并必须路由到同一节点（按 uploadId 粘性路由），
+ * 且上传目录须为各节点共享的同一存储
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChunkedUploadServiceImpl implements IChunkedUploadService {
+
+    private static final String CHUNKED_DIR = "chunked";
+    private static final String DATA_FILE = "data.part";
+    private static final String PART_SUFFIX = ".part";
+    private static final Pattern SHA256_PATTERN = Pattern.compile("[0-9a-f]{64}");
+
+    private static final int STATUS_UPLOADING = 0;
+    private static final int STATUS_COMPLETING = 1;
+
+    /**
+     * 每次初始化最多清理的过期会话数
+     */
+    private static final int EXPIRED_PURGE_BATCH = 100;
+
+    private final FileStorageProperties fileStorageProperties;
+    private final FileUploadMapper fileUploadMapper;
+    private final FileUploadChunkMapper fileUploadChunkMapper;
+    private final IFileService fileService;
+
+    /**
+     * 会话级读写锁：写入 data.part 持有读锁，合并、取消、清理持有写锁；会话结束后移除
+     */
+    private final ConcurrentHashMap<String, ReadWriteLock> sessionLocks = new ConcurrentHashMap<>();
+
+    @Override
+    public ChunkedUploadVo init(ChunkedUploadInitDto dto, Long uploaderId) {
+        long maxSize = fileStorageProperties.getChunkedMaxFileSize().toBytes();
+        if (dto.getFileSize() > maxSize) {
+            throw new BusinessException(413, "文件大小不能超过 " + fileStorageProperties.getChunkedMaxFileSize().toMegabytes() + "MB");
+        }
+        purgeExpired();
+
+        int chunkSize = (int) fileStorageProperties.getChunkSize().toBytes();
+        FileUpload upload = new FileUpload();
+        upload.setUploadId(UUID.randomUUID().toString().replace("-", ""));
+        upload.setUploaderId(uploaderId);
+        upload.setFileName(dto.getFileName());
+        upload.setContentType(dto.getContentType());
+        upload.setFileSize(dto.getFileSize());
+        upload.setChunkSize(chunkSize);
+        upload.setChunkCount((int) ((dto.getFileSize() + chunkSize - 1) / chunkSize));
+        upload.setBusinessType(dto.getBusinessType());
+        upload.setBusinessId(dto.getBusinessId());
+        upload.setStatus(STATUS_UPLOADING);
+
+        Path sessionDir = sessionDir(upload.getUploadId());
+        try {
+            Files.createDirectories(sessionDir);
+            // 预分配到最终大小，各分片直接写入各自偏移，合并时无需再拼接
+            try (RandomAccessFile file = new RandomAccessFile(sessionDir.resolve(DATA_FILE).toFile(), "rw")) {
+                file.setLength(dto.getFileSize());
+            }
+        } catch (IOException e) {
+            deleteSessionDir(sessionDir);
+            log.error("分片上传临时文件创建失败：{}", sessionDir, e);
+            throw new BusinessException("文件上传失败，请稍后重试");
+        }
+        try {
+            fileUploadMapper.insert(upload);
+        } catch (RuntimeException e) {
+            deleteSessionDir(sessionDir);
+            throw e;
+        }
+        return toVo(upload, List.of());
+    }
+
+    @Override
+    public ChunkedUploadVo getStatus(String uploadId, Long uploaderId) {
+        FileUpload upload = getOwnedUpload(uploadId, uploaderId);
+        return toVo(upload, fileUploadChunkMapper.selectChunkIndexes(uploadId));
+    }
+
+    @Override
+    public void uploadChunk(String uploadId, int chunkIndex, InputStream body, String sha256, Long uploaderId) {
+        String expectedSha256 = sha256 != null ? sha256.trim().toLowerCase(Locale.ROOT) : null;
+        if (expectedSha256 == null || !SHA256_PATTERN.matcher(expectedSha256).matches()) {
+            throw new BusinessException(ResultCode.VALIDATE_FAILED.getCode(), "缺少或无效的分片校验值");
+        }
+
+        FileUpload upload = getOwnedUpload(uploadId, uploaderId);
+        requireUploading(upload);
+        if (chunkIndex < 0 || chunkIndex >= upload.getChunkCount()) {
+            throw new BusinessException(ResultCode.VALIDATE_FAILED.getCode(), "分片序号超出范围");
+        }
+        long offset = (long) chunkIndex * upload.getChunkSize();
+        long expectedLength = Math.min(upload.getChunkSize(), upload.getFileSize() - offset);
+
+        // 网络读取写入暂存文件，不持有任何锁；校验失败时 data.part 与已登记的分片都不受影响
+        Path stagingFile = sessionDir(uploadId).resolve(chunkIndex + "-" + UUID.randomUUID().toString().replace("-", "") + PART_SUFFIX);
+        try {
+            String actualSha256 = writeStaging(stagingFile, expectedLength, body);
+            if (!actualSha256.equals(expectedSha256)) {
+                throw new BusinessException(ResultCode.VALIDATE_FAILED.getCode(), "分片校验失败，请重传该分片");
+            }
+            placeChunk(uploadId, chunkIndex, offset, expectedLength, stagingFile, actualSha256);
+        } finally {
+            deleteQuietly(stagingFile);
+        }
+    }
+
+    @Override
+    public FileUploadVo complete(String uploadId, String sha256, Long uploaderId) {
+        FileUpload upload = getOwnedUpload(uploadId, uploaderId);
+        if (fileUploadMapper.transitionStatus(uploadId, STATUS_UPLOADING, STATUS_COMPLETING) == 0) {
+            throw new BusinessException("上传正在合并，请勿重复提交");
+        }
+        // 状态切换后新的分片不再写入，这里只等待已在写入 data.part 的分片结束，不在锁内计算哈希
+        awaitWriters(uploadId);
+
+        Path dataFile = sessionDir(uploadId).resolve(DATA_FILE);
+        String actualSha256;
+        try {
+            int missing = upload.getChunkCount() - fileUploadChunkMapper.countChunks(uploadId);
+            if (missing > 0) {
+                throw new BusinessException("还有 " + missing + " 个分片未上传");
+            }
+            actualSha256 = hashFile(dataFile);
+            if (StringUtils.hasText(sha256) && !actualSha256.equalsIgnoreCase(sha256.trim())) {
+                throw new BusinessException(ResultCode.VALIDATE_FAILED.getCode(), "文件校验失败，请重新上传");
+            }
+        } catch (RuntimeException e) {
+            // 恢复为上传中，客户端可以补传或重传分片后再次合并
+            fileUploadMapper.transitionStatus(uploadId, STATUS_COMPLETING, STATUS_UPLOADING);
+            throw e;
+        }
+
+        FileUploadVo vo;
+        try {
+            vo = fileService.registerAssembled(dataFile, upload.getFileSize(), actualSha256, upload.getFileName(),
+                    upload.getContentType(), upload.getBusinessType(), upload.getBusinessId(), uploaderId);
+        } catch (RuntimeException e) {
+            if (Files.exists(dataFile)) {
+                // 登记失败时合并好的文件与分片记录都保留，恢复为上传中，客户端直接再次合并即可
+                fileUploadMapper.transitionStatus(uploadId, STATUS_COMPLETING, STATUS_UPLOADING);
+            } else {
+                // 文件已移入存储位置但事务未提交成功，会话无法恢复
+                endSession(uploadId);
+            }
+            throw e;
+        }
+
+        // 登记成功后才结束会话；清理失败不影响已登记的文件，残留会话由过期清理回收
+        try {
+            endSession(uploadId);
+        } catch (RuntimeException e) {
+            log.warn("分片上传会话清理失败：{}", uploadId, e);
+        }
+        return vo;
+    }
+
+    /**
+     * 删除会话记录、分片记录与会话目录
+     */
+    private void endSession(String uploadId) {
+        deleteSession(uploadId);
+        deleteSessionDir(sessionDir(uploadId));
+        sessionLocks.remove(uploadId);
+    }
+
+    @Override
+    public void abort(String uploadId, Long uploaderId) {
+        getOwnedUpload(uploadId, uploaderId);
+        deleteSession(uploadId);
+        awaitWriters(uploadId);
+        deleteSessionDir(sessionDir(uploadId));
+        sessionLocks.remove(uploadId);
+    }
+
+    /**
+     * 把已校验的暂存分片定位写入 data.part 并登记；持有会话读锁，锁内再次确认会话仍在上传中
+     */
+    private void placeChunk(String uploadId, int chunkIndex, long offset, long length, Path stagingFile,
+            String sha256) {
+        ReadWriteLock sessionLock = lockFor(uploadId);
+        Lock lock = sessionLock.readLock();
+        lock.lock();
+        try {
+            FileUpload upload = fileUploadMapper.selectById(uploadId);
+            if (upload == null) {
+                sessionLocks.remove(uploadId, sessionLock);
+                throw new BusinessException(404, "上传会话不存在或已过期");
+            }
+            requireUploading(upload);
+
+            // 重传已登记的分片时先撤销登记，写入中途失败不会留下与内容不符的记录
+            fileUploadChunkMapper.deleteChunk(uploadId, chunkIndex);
+            try (FileChannel source = FileChannel.open(stagingFile, StandardOpenOption.READ);
+                 FileChannel target = FileChannel.open(sessionDir(uploadId).resolve(DATA_FILE), StandardOpenOption.WRITE)) {
+                long position = 0;
+                while (position < length) {
+                    position += source.transferTo(position, length - position, target.position(offset + position));
+                }
+                // 登记分片之前落盘，避免宕机后已登记的分片内容丢失
+                target.force(false);
+            } catch (NoSuchFileException e) {
+                throw new BusinessException(404, "上传会话不存在或已过期");
+            } catch (IOException e) {
+                log.error("分片写入失败：{}，偏移 {}", uploadId, offset, e);
+                throw new BusinessException("文件上传失败，请稍后重试");
+            }
+            fileUploadChunkMapper.recordChunk(uploadId, chunkIndex, sha256);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 把分片内容写入暂存文件，返回内容的 SHA-256；分片长度必须与会话约定一致
+     */
+    private String writeStaging(Path stagingFile, long expectedLength, InputStream body) {
+        MessageDigest digest = sha256();
+        byte[] chunk = new byte[(int) fileStorageProperties.getStreamBufferSize().toBytes()];
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(stagingFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            int read;
+            while ((read = body.read(chunk)) != -1) {
+                if (written + read > expectedLength) {
+                    throw new BusinessException(ResultCode.VALIDATE_FAILED.getCode(), "分片大小与上传会话不一致");
+                }
+                digest.update(chunk, 0, read);
+                ByteBuffer buffer = ByteBuffer.wrap(chunk, 0, read);
+                while (buffer.hasRemaining()) {
+                    written += channel.write(buffer);
+                }
+            }
+            if (written != expectedLength) {
+                throw new BusinessException(ResultCode.VALIDATE_FAILED.getCode(), "分片不完整，请重传该分片");
+            }
+        } catch (NoSuchFileException e) {
+            throw new BusinessException(404, "上传会话不存在或已过期");
+        } catch (IOException e) {
+            log.error("分片暂存失败：{}", stagingFile, e);
+            throw new BusinessException("文件上传失败，请稍后重试");
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 顺序读取合并后的文件计算 SHA-256（内容寻址存储与完整性校验都需要整个文件的哈希）
+     */
+    private String hashFile(Path dataFile) {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate((int) fileStorageProperties.getStreamBufferSize().toBytes());
+        try (FileChannel channel = FileChannel.open(dataFile, StandardOpenOption.READ)) {
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        } catch (IOException e) {
+            log.error("分片上传文件读取失败：{}", dataFile, e);
+            throw new BusinessException("文件上传失败，请稍后重试");
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 清理超过保留时长仍未完成的会话（项目未启用定时任务，在新建会话时顺带清理）
+     * 会话记录先删除，之后开始写入的分片会被拒绝；仍有分片在写入的会话留到下次清理，不阻塞初始化
+     */
+    private void purgeExpired() {
+        LocalDateTime expireBefore = LocalDateTime.now().minus(fileStorageProperties.getChunkedUploadExpire());
+        List<FileUpload> expired = fileUploadMapper.selectList(new LambdaQueryWrapper<FileUpload>()
+                .select(FileUpload::getUploadId)
+                .lt(FileUpload::getCreateTime, expireBefore)
+                .last("LIMIT " + EXPIRED_PURGE_BATCH));
+        int purged = 0;
+        for (FileUpload upload : expired) {
+            String uploadId = upload.getUploadId();
+            Lock lock = lockFor(uploadId).writeLock();
+            if (!lock.tryLock()) {
+                continue;
+            }
+            try {
+                deleteSession(uploadId);
+                deleteSessionDir(sessionDir(uploadId));
+                purged++;
+            } finally {
+                lock.unlock();
+                sessionLocks.remove(uploadId);
+            }
+        }
+        if (purged > 0) {
+            log.info("清理过期分片上传会话 {} 个", purged);
+        }
+    }
+
+    /**
+     * 等待正在写入 data.part 的分片结束（调用前会话已切换状态或已删除，之后的分片会在锁内检查时被拒绝）
+     */
+    private void awaitWriters(String uploadId) {
+        Lock lock = lockFor(uploadId).writeLock();
+        lock.lock();
+        lock.unlock();
+    }
+
+    private FileUpload getOwnedUpload(String uploadId, Long uploaderId) {
+        FileUpload upload = fileUploadMapper.selectById(uploadId);
+        if (upload == null) {
+            throw new BusinessException(404, "上传会话不存在或已过期");
+        }
+        if (!Objects.equals(upload.getUploaderId(), uploaderId)) {
+            throw new BusinessException(403, "无权操作此上传会话");
+        }
+        return upload;
+    }
+
+    private static void requireUploading(FileUpload upload) {
+        if (!Integer.valueOf(STATUS_UPLOADING).equals(upload.getStatus())) {
+            throw new BusinessException("上传正在合并，无法继续上传分片");
+        }
+    }
+
+    private void deleteSession(String uploadId) {
+        fileUploadChunkMapper.deleteByUploadId(uploadId);
+        fileUploadMapper.deleteById(uploadId);
+    }
+
+    private Path sessionDir(String uploadId) {
+        return fileStorageProperties.resolveUploadRoot().resolve(CHUNKED_DIR).resolve(uploadId);
+    }
+
+    private ReadWriteLock lockFor(String uploadId) {
+        return sessionLocks.computeIfAbsent(uploadId, key -> new ReentrantReadWriteLock());
+    }
+
+    private ChunkedUploadVo toVo(FileUpload upload, List<Integer> receivedChunks) {
+        ChunkedUploadVo vo = new ChunkedUploadVo();
+        vo.setUploadId(upload.getUploadId());
+        vo.setFileName(upload.getFileName());
+        vo.setFileSize(upload.getFileSize());
+        vo.setChunkSize(upload.getChunkSize());
+        vo.setChunkCount(upload.getChunkCount());
+        vo.setReceivedChunks(receivedChunks);
+        return vo;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    private static void deleteSessionDir(Path sessionDir) {
+        try {
+            FileSystemUtils.deleteRecursively(sessionDir);
+        } catch (IOException e) {
+            log.warn("分片上传目录删除失败：{}", sessionDir);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("文件删除失败：{}", path);
+        }
+    }
+}
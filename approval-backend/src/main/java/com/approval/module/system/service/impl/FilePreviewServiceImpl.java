@@ -0,0 +1,242 @@
+package com.approval.module.system.service.impl;
+
+import com.approval.config.FileStorageProperties;
+import com.approval.module.system.service.IFilePreviewService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 图片缩略图与预览图服务实现
+ * 固定大小线程池 + 有界队列：队列满时拒绝新任务而不是阻塞上传请求或无限堆积解码任务；
+ * 解码时按预览图尺寸做源图降采样，大图不会整张读入内存。多页/多帧图片（TIFF、GIF）取第一页
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FilePreviewServiceImpl implements IFilePreviewService {
+
+    private static final String PART_SUFFIX = ".part";
+    private static final String METRIC_PREFIX = "file.preview";
+
+    private final FileStorageProperties fileStorageProperties;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 已排队或正在生成的原文件，同内容的重复上传不再重复排队
+     */
+    private final Set<Path> inFlight = ConcurrentHashMap.newKeySet();
+
+    private ThreadPoolExecutor executor;
+    private Counter succeeded;
+    private Counter failed;
+    private Counter rejected;
+    private Timer duration;
+
+    @PostConstruct
+    public void init() {
+        FileStorageProperties.Preview preview = fileStorageProperties.getPreview();
+        this.executor = new ThreadPoolExecutor(preview.getThreads(), preview.getThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(preview.getQueueCapacity()), new CustomizableThreadFactory("file-preview-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        // executor.queued / executor.queue.remaining / executor.active 等队列深度指标
+        new ExecutorServiceMetrics(executor, "filePreview", Tags.empty()).bindTo(meterRegistry);
+        this.succeeded = meterRegistry.counter(METRIC_PREFIX + ".tasks", "result", "success");
+        this.failed = meterRegistry.counter(METRIC_PREFIX + ".tasks", "result", "failed");
+        this.rejected = meterRegistry.counter(METRIC_PREFIX + ".tasks", "result", "rejected");
+        this.duration = meterRegistry.timer(METRIC_PREFIX + ".duration");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public boolean submit(Path original, String contentType) {
+        if (!fileStorageProperties.getPreview().isEnabled() || contentType == null
+                || !ImageIO.getImageReadersByMIMEType(contentType).hasNext()) {
+            return false;
+        }
+        // 内容寻址存储中重复上传的图片已经生成过
+        if (Files.exists(siblingOf(original, THUMBNAIL_SUFFIX)) && Files.exists(siblingOf(original, PREVIEW_SUFFIX))) {
+            return true;
+        }
+        if (!inFlight.add(original)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    duration.record(() -> generate(original));
+                } finally {
+                    inFlight.remove(original);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(original);
+            rejected.increment();
+            log.warn("预览图生成队列已满，跳过：{}", original);
+            return false;
+        }
+    }
+
+    @Override
+    public void delete(Path original) {
+        deleteQuietly(siblingOf(original, THUMBNAIL_SUFFIX));
+        deleteQuietly(siblingOf(original, PREVIEW_SUFFIX));
+    }
+
+    private void generate(Path original) {
+        FileStorageProperties.Preview preview = fileStorageProperties.getPreview();
+        try {
+            BufferedImage source = readFirstPage(original, preview.getPreviewSize());
+            if (source == null) {
+                failed.increment();
+                log.debug("无法解码图片，跳过预览图生成：{}", original);
+                return;
+            }
+            BufferedImage previewImage = scale(source, preview.getPreviewSize());
+            // 缩略图由预览图继续缩小，不再解码原图
+            BufferedImage thumbnail = scale(previewImage, preview.getThumbnailSize());
+            if (!writeJpeg(original, previewImage, siblingOf(original, PREVIEW_SUFFIX), preview.getQuality())
+                    || !writeJpeg(original, thumbnail, siblingOf(original, THUMBNAIL_SUFFIX), preview.getQuality())) {
+                delete(original);
+                log.debug("原文件已删除，丢弃生成的预览图：{}", original);
+                return;
+            }
+            succeeded.increment();
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+            log.warn("预览图生成失败：{}，{}", original, e.getMessage());
+        }
+    }
+
+    /**
+     * 读取第一页，按整数倍降采样到最长边不小于 targetSize，无可用解码器时返回 null
+     */
+    private BufferedImage readFirstPage(Path original, int targetSize) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            if (in == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                int subsampling = Math.max(1, longest / targetSize);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * 缩放到最长边不超过 maxSize（不放大），逐级减半后再缩放到目标尺寸，避免一次大比例双线性缩放产生锯齿；
+     * 输出为白底 RGB，透明区域不会在 JPEG 中变黑
+     */
+    private static BufferedImage scale(BufferedImage source, int maxSize) {
+        int longest = Math.max(source.getWidth(), source.getHeight());
+        double ratio = Math.min(1.0, (double) maxSize / longest);
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage next = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(current, 0, 0, width, height, Color.WHITE, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    /**
+     * 先写临时文件再原子改名，下载方不会读到写了一半的图片
+     * 改名后再确认原文件仍存在：原文件在生成期间被删除（存储对象回收）时返回 false，由调用方删除已写出的文件。
+     * 回收流程先移走原文件再删除预览图，因此改名早于删除的由删除流程清理，晚于删除的在这里被发现
+     */
+    private static boolean writeJpeg(Path original, BufferedImage image, Path target, float quality) throws IOException {
+        if (!Files.exists(original)) {
+            return false;
+        }
+        Path partFile = target.resolveSibling(target.getFileName() + PART_SUFFIX);
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(partFile.toFile())) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(partFile);
+            throw e;
+        } finally {
+            writer.dispose();
+        }
+        Files.move(partFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return Files.exists(original);
+    }
+
+    private static Path siblingOf(Path original, String suffix) {
+        return original.resolveSibling(original.getFileName() + suffix);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("文件删除失败：{}", path);
+        }
+    }
+}
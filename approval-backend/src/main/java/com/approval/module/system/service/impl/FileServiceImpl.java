@@ -0,0 +1,535 @@
+package com.approval.module.system.service.impl;
+
+import com.approval.common.exception.BusinessException;
+import com.approval.common.utils.TransactionUtils;
+import com.approval.config.FileStorageProperties;
+import com.approval.module.system.entity.SysFile;
+import com.approval.module.system.mapper.FileBlobMapper;
+import com.approval.module.system.mapper.SysFileMapper;
+import com.approval.module.system.service.IFilePreviewService;
+import com.approval.module.system.service.IFileService;
+import com.approval.module.system.vo.FileAttachmentVo;
+import com.approval.module.system.vo.FileUploadVo;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * 文件服务实现
+ * 按日期存储：{上传目录}/yyyy/MM/{随机名}.{扩展名}；
+ * 内容寻址存储：{上传目录}/cas/{sha256[0:2]}/{sha256[2:4]}/{sha256}，sys_file_blob 记录引用数，
+ * 每次上传在 sys_file 插入一条记录，内容重复的上传不再写磁盘。均通过 /upload/** 由 AttachmentController 下载
+ */
+@Slf4j
+@Service
+public class FileServiceImpl implements IFileService {
+
+    private static final String UPLOAD_PREFIX = "/upload/";
+    private static final String PART_SUFFIX = ".part";
+    private static final String CAS_DIR = "cas";
+    private static final String CAS_TMP_DIR = "tmp";
+    private static final Pattern SHA256_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern SAFE_EXTENSION_PATTERN = Pattern.compile("[A-Za-z0-9]{1,10}");
+    private static final MediaType IMAGE_WEBP = MediaType.parseMediaType("image/webp");
+    private static final MediaType IMAGE_BMP = MediaType.parseMediaType("image/bmp");
+
+    private final FileStorageProperties fileStorageProperties;
+    private final SysFileMapper sysFileMapper;
+    private final FileBlobMapper fileBlobMapper;
+    private final IFilePreviewService filePreviewService;
+    private final TransactionTemplate transactionTemplate;
+
+    public FileServiceImpl(FileStorageProperties fileStorageProperties,
+            SysFileMapper sysFileMapper,
+            FileBlobMapper fileBlobMapper,
+            IFilePreviewService filePreviewService,
+            PlatformTransactionManager transactionManager) {
+        this.fileStorageProperties = fileStorageProperties;
+        this.sysFileMapper = sysFileMapper;
+        this.fileBlobMapper = fileBlobMapper;
+        this.filePreviewService = filePreviewService;
+        // 文件读写在事务外完成，只有引用计数与文件记录的更新放在事务内
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public FileUploadVo upload(MultipartFile file, String businessType, Long businessId, Long uploaderId) {
+        if (file == null || file.isEmpty()) {
+            throw new BusinessException("上传文件不能为空");
+        }
+
+        if (contentAddressed()) {
+            try (InputStream body = file.getInputStream()) {
+                return storeContentAddressed(body, file.getSize(), file.getOriginalFilename(), file.getContentType(),
+                        businessType, businessId, uploaderId);
+            } catch (IOException e) {
+                log.error("读取上传文件失败", e);
+                throw new BusinessException("文件上传失败，请稍后重试");
+            }
+        }
+
+        StoredFile target = newDatedTarget(file.getOriginalFilename());
+        try {
+            file.transferTo(target.path());
+        } catch (IOException e) {
+            log.error("文件保存失败：{}", target.path(), e);
+            throw new BusinessException("文件上传失败，请稍后重试");
+        }
+        return buildVo(null, target, file.getOriginalFilename(), file.getSize(), file.getContentType(), null,
+                businessType, businessId);
+    }
+
+    @Override
+    public FileUploadVo uploadStream(InputStream body, long contentLength, String fileName, String contentType,
+            String businessType, Long businessId, Long uploaderId) {
+        if (contentLength > fileStorageProperties.getMaxFileSize().toBytes()) {
+            throw tooLarge();
+        }
+        if (contentLength == 0) {
+            throw new BusinessException("上传文件不能为空");
+        }
+
+        if (contentAddressed()) {
+            return storeContentAddressed(body, contentLength, fileName, contentType, businessType, businessId, uploaderId);
+        }
+
+        StoredFile target = newDatedTarget(fileName);
+        // 先写入同目录下的临时文件，完成后原子改名，读取方不会看到写了一半的文件
+        Path partFile = target.path().resolveSibling(target.path().getFileName() + PART_SUFFIX);
+        HashedContent content = writeHashed(body, contentLength, partFile);
+        try {
+            Files.move(partFile, target.path(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteQuietly(partFile);
+            log.error("文件改名失败：{}", partFile, e);
+            throw new BusinessException("文件上传失败，请稍后重试");
+        }
+        return buildVo(null, target, fileName, content.size(), contentType, content.sha256(),
+                businessType, businessId);
+    }
+
+    @Override
+    public FileUploadVo registerAssembled(Path file, long size, String sha256, String fileName, String contentType,
+            String businessType, Long businessId, Long uploaderId) {
+        HashedContent content = new HashedContent(size, sha256);
+        if (contentAddressed()) {
+            return registerContentAddressed(file, content, fileName, contentType, businessType, businessId, uploaderId);
+        }
+
+        StoredFile target = newDatedTarget(fileName);
+        try {
+            Files.move(file, target.path(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("文件移动失败：{}", file, e);
+            throw new BusinessException("文件上传失败，请稍后重试");
+        }
+        return buildVo(null, target, fileName, size, contentType, sha256, businessType, businessId);
+    }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void bindAttachments(String attachments, String businessType, Long businessId, Long userId) {
+        if (!StringUtils.hasText(attachments)) {
+            return;
+        }
+        for (String attachment : attachments.split(",")) {
+            String sha256 = contentAddressedSha256(attachment.trim());
+            if (sha256 == null || sysFileMapper.bindUnbound(sha256, userId, businessType, businessId) > 0) {
+                continue;
+            }
+            // 引用他人上传或已关联其他业务的附件：新增一条引用，对方删除记录后存储对象不会被回收
+            if (fileBlobMapper.addReference(sha256) == 0) {
+                throw new BusinessException("附件不存在，请重新上传");
+            }
+            SysFile source = sysFileMapper.selectOne(new LambdaQueryWrapper<SysFile>()
+                    .eq(SysFile::getSha256, sha256)
+                    .last("LIMIT 1"));
+            SysFile file = new SysFile();
+            file.setFileName(source != null ? source.getFileName() : sha256);
+            file.setFilePath(UPLOAD_PREFIX + blobPath(sha256));
+            file.setFileSize(source != null ? source.getFileSize() : null);
+            file.setFileType(source != null ? source.getFileType() : null);
+            file.setBusinessType(businessType);
+            file.setBusinessId(businessId);
+            file.setUploaderId(userId);
+            file.setSha256(sha256);
+            sysFileMapper.insert(file);
+        }
+    }
+
+    @Override
+    public void deleteFile(Long fileId, Long userId) {
+        SysFile file = sysFileMapper.selectById(fileId);
+        if (file == null) {
+            throw new BusinessException(404, "文件不存在");
+        }
+        if (!Objects.equals(file.getUploaderId(), userId)) {
+            throw new BusinessException(403, "无权删除此文件");
+        }
+        if (file.getBusinessId() != null) {
+            throw new BusinessException("文件已关联业务数据，无法删除");
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // 上面的检查读自事务外，期间可能已被提交申请关联，删除时按条件再判断一次
+            if (sysFileMapper.deleteUnbound(fileId, userId) == 0) {
+                throw new BusinessException("文件已关联业务数据，无法删除");
+            }
+            if (file.getSha256() == null) {
+                return;
+            }
+            fileBlobMapper.decrementReference(file.getSha256());
+            if (fileBlobMapper.deleteUnreferenced(file.getSha256()) > 0) {
+                retireBlob(file.getSha256());
+            }
+        });
+    }
+
+    @Override
+    public FileAttachmentVo getAttachment(String relativePath) {
+        Path root = uploadRoot();
+        Path path = root.resolve(relativePath).normalize();
+        // 拒绝 ../ 越出上传目录以及未完成的临时文件
+        if (!path.startsWith(root) || path.startsWith(root.resolve(CAS_DIR).resolve(CAS_TMP_DIR))
+                || path.toString().endsWith(PART_SUFFIX) || !Files.isRegularFile(path)) {
+            throw new BusinessException(404, "文件不存在");
+        }
+
+        FileAttachmentVo attachment = new FileAttachmentVo();
+        attachment.setPath(path);
+        String fileName = path.getFileName().toString();
+        try {
+            attachment.setSize(Files.size(path));
+            attachment.setLastModified(Files.getLastModifiedTime(path).toMillis());
+        } catch (IOException e) {
+            throw new BusinessException(404, "文件不存在");
+        }
+
+        if (path.startsWith(root.resolve(CAS_DIR)) && SHA256_PATTERN.matcher(fileName).matches()) {
+            // 存储对象没有扩展名；下载名使用内容哈希，只借用文件记录中的扩展名，不暴露其他上传人的文件名
+            SysFile sysFile = sysFileMapper.selectOne(new LambdaQueryWrapper<SysFile>()
+                    .select(SysFile::getFileName)
+                    .eq(SysFile::getSha256, fileName)
+                    .last("LIMIT 1"));
+            String ext = sysFile != null ? StringUtils.getFilenameExtension(sysFile.getFileName()) : null;
+            attachment.setEtag("\"" + fileName + "\"");
+            attachment.setImmutable(true);
+            attachment.setFileName(ext != null && SAFE_EXTENSION_PATTERN.matcher(ext).matches()
+                    ? fileName + "." + ext.toLowerCase() : fileName);
+        } else {
+            attachment.setEtag("\"" + Long.toHexString(attachment.getLastModified()) + "-"
+                    + Long.toHexString(attachment.getSize()) + "\"");
+            attachment.setFileName(fileName);
+        }
+
+        // 上传人声明的类型与扩展名都不可信（如 text/html 会在同源页面内执行脚本），只有文件头识别为图片或 PDF 时才内联显示
+        MediaType inlineType = sniffInlineType(path);
+        attachment.setInline(inlineType != null);
+        attachment.setContentType((inlineType != null ? inlineType : MediaType.APPLICATION_OCTET_STREAM).toString());
+        return attachment;
+    }
+
+    /**
+     * 按文件头识别可内联显示的类型（PNG、JPEG、GIF、WebP、BMP、PDF），不在白名单内返回 null；SVG 可含脚本，不在白名单内
+     */
+    private static MediaType sniffInlineType(Path path) {
+        byte[] header = new byte[12];
+        int length;
+        try (InputStream in = Files.newInputStream(path)) {
+            length = in.readNBytes(header, 0, header.length);
+        } catch (IOException e) {
+            return null;
+        }
+        if (startsWith(header, length, 0x89, 'P', 'N', 'G')) {
+            return MediaType.IMAGE_PNG;
+        }
+        if (startsWith(header, length, 0xFF, 0xD8, 0xFF)) {
+            return MediaType.IMAGE_JPEG;
+        }
+        if (startsWith(header, length, 'G', 'I', 'F', '8')) {
+            return MediaType.IMAGE_GIF;
+        }
+        if (startsWith(header, length, 'R', 'I', 'F', 'F') && length >= 12
+                && header[8] == 'W' && header[9] == 'E' && header[10] == 'B' && header[11] == 'P') {
+            return IMAGE_WEBP;
+        }
+        if (startsWith(header, length, 'B', 'M')) {
+            return IMAGE_BMP;
+        }
+        if (startsWith(header, length, '%', 'P', 'D', 'F', '-')) {
+            return MediaType.APPLICATION_PDF;
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] header, int length, int... magic) {
+        if (length < magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if ((header[i] & 0xFF) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 内容寻址存储：先写临时文件并计算哈希，再登记存储
+     */
+    private FileUploadVo storeContentAddressed(InputStream body, long contentLength, String fileName,
+            String contentType, String businessType, Long businessId, Long uploaderId) {
+        Path tmpDir = uploadRoot().resolve(CAS_DIR).resolve(CAS_TMP_DIR);
+        createDirectories(tmpDir);
+        Path partFile = tmpDir.resolve(UUID.randomUUID().toString().replace("-", "") + PART_SUFFIX);
+        HashedContent content = writeHashed(body, contentLength, partFile);
+        try {
+            return registerContentAddressed(partFile, content, fileName, contentType, businessType, businessId, uploaderId);
+        } finally {
+            deleteQuietly(partFile);
+        }
+    }
+
+    /**
+     * 在事务内登记引用、插入文件记录、放置存储对象；放置是事务内最后一步，失败时源文件保持原样，由调用方决定删除或重试
+     * 存储对象已存在时源文件不会被移动，同样由调用方删除
+     */
+    private FileUploadVo registerContentAddressed(Path partFile, HashedContent content, String fileName,
+            String contentType, String businessType, Long businessId, Long uploaderId) {
+        String storagePath = blobPath(content.sha256());
+        SysFile sysFile = new SysFile();
+        sysFile.setFileName(StringUtils.hasText(fileName) ? fileName : content.sha256());
+        sysFile.setFilePath(UPLOAD_PREFIX + storagePath);
+        sysFile.setFileSize(content.size());
+        sysFile.setFileType(contentType);
+        sysFile.setBusinessType(businessType);
+        sysFile.setBusinessId(businessId);
+        sysFile.setUploaderId(uploaderId);
+        sysFile.setSha256(content.sha256());
+        transactionTemplate.executeWithoutResult(status -> {
+            // 引用计数的行锁使放置文件与删除最后一个引用互斥
+            fileBlobMapper.incrementReference(content.sha256(), storagePath, content.size());
+            sysFileMapper.insert(sysFile);
+            placeBlob(partFile, uploadRoot().resolve(storagePath));
+        });
+
+        StoredFile stored = new StoredFile(uploadRoot().resolve(storagePath), sysFile.getFilePath(), content.sha256());
+        return buildVo(sysFile.getFileId(), stored, fileName, content.size(), contentType, content.sha256(),
+                businessType, businessId);
+    }
+
+    /**
+     * 回收存储对象：持有行锁时先把文件移入临时目录（同内容的并发上传等本事务提交后会重新写入），
+     * 提交后再删除磁盘文件与缩略图；回滚时移回原位置，存储对象记录不会指向缺失的文件
+     */
+    private void retireBlob(String sha256) {
+        Path blobFile = uploadRoot().resolve(blobPath(sha256));
+        Path tmpDir = uploadRoot().resolve(CAS_DIR).resolve(CAS_TMP_DIR);
+        createDirectories(tmpDir);
+        Path retiredFile = tmpDir.resolve(sha256 + "." + UUID.randomUUID().toString().replace("-", "") + PART_SUFFIX);
+        try {
+            Files.move(blobFile, retiredFile, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            return;
+        } catch (IOException e) {
+            log.error("存储对象移除失败：{}", blobFile, e);
+            throw new BusinessException("文件删除失败，请稍后重试");
+        }
+        TransactionUtils.afterCommit(() -> {
+            deleteQuietly(retiredFile);
+            filePreviewService.delete(blobFile);
+        });
+        TransactionUtils.afterRollback(() -> {
+            try {
+                Files.move(retiredFile, blobFile, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                // 回滚后同内容的上传已重新写入存储对象
+                deleteQuietly(retiredFile);
+            }
+        });
+    }
+
+    /**
+     * 存储对象已存在时直接复用（内容相同），否则把临时文件移入分片目录
+     */
+    private void placeBlob(Path partFile, Path blobFile) {
+        if (Files.exists(blobFile)) {
+            return;
+        }
+        createDirectories(blobFile.getParent());
+        try {
+            Files.move(partFile, blobFile, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("存储对象写入失败：{}", blobFile, e);
+            throw new BusinessException("文件上传失败，请稍后重试");
+        }
+    }
+
+    /**
+     * 把请求体写入临时文件，同一遍读取中计算 SHA-256 并校验大小，失败时删除临时文件
+     */
+    private HashedContent writeHashed(InputStream body, long contentLength, Path partFile) {
+        long maxSize = fileStorageProperties.getMaxFileSize().toBytes();
+        MessageDigest digest = sha256();
+        byte[] chunk = new byte[(int) fileStorageProperties.getStreamBufferSize().toBytes()];
+        long size = 0;
+        try (FileChannel out = FileChannel.open(partFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            int read;
+            while ((read = body.read(chunk)) != -1) {
+                size += read;
+                if (size > maxSize) {
+                    throw tooLarge();
+                }
+                digest.update(chunk, 0, read);
+                ByteBuffer buffer = ByteBuffer.wrap(chunk, 0, read);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            }
+            if (size == 0) {
+                throw new BusinessException("上传文件不能为空");
+            }
+            if (contentLength > 0 && size != contentLength) {
+                throw new BusinessException("文件上传不完整，请重新上传");
+            }
+        } catch (IOException e) {
+            deleteQuietly(partFile);
+            log.error("文件流式写入失败：{}", partFile, e);
+            throw new BusinessException("文件上传失败，请稍后重试");
+        } catch (RuntimeException e) {
+            deleteQuietly(partFile);
+            throw e;
+        }
+        return new HashedContent(size, HexFormat.of().formatHex(digest.digest()));
+    }
+
+    /**
+     * 在当月目录下分配随机文件名，保留原扩展名
+     */
+    private StoredFile newDatedTarget(String originalFilename) {
+        LocalDate today = LocalDate.now();
+        String month = String.format("%d/%02d", today.getYear(), today.getMonthValue());
+        Path targetDir = uploadRoot().resolve(month);
+        createDirectories(targetDir);
+
+        String ext = StringUtils.getFilenameExtension(originalFilename);
+        String newName = UUID.randomUUID().toString().replace("-", "");
+        if (StringUtils.hasText(ext)) {
+            newName = newName + "." + ext.toLowerCase();
+        }
+        return new StoredFile(targetDir.resolve(newName), UPLOAD_PREFIX + month + "/" + newName, newName);
+    }
+
+    private FileUploadVo buildVo(Long fileId, StoredFile stored, String originalFilename, long size,
+            String contentType, String sha256, String businessType, Long businessId) {
+        FileUploadVo vo = new FileUploadVo();
+        vo.setFileId(fileId);
+        vo.setFileName(StringUtils.hasText(originalFilename) ? originalFilename : stored.name());
+        vo.setFilePath(stored.relativePath());
+        vo.setFileUrl(ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path(stored.relativePath())
+                .toUriString());
+        vo.setFileSize(size);
+        vo.setContentType(contentType);
+        vo.setSha256(sha256);
+        vo.setBusinessType(businessType);
+        vo.setBusinessId(businessId);
+
+        // 图片提交后台生成缩略图与预览图，生成前返回的地址暂不可访问
+        String mediaType = StringUtils.hasText(contentType) ? contentType
+                : MediaTypeFactory.getMediaType(vo.getFileName()).map(MediaType::toString).orElse(null);
+        if (filePreviewService.submit(stored.path(), mediaType)) {
+            vo.setThumbnailUrl(vo.getFileUrl() + IFilePreviewService.THUMBNAIL_SUFFIX);
+            vo.setPreviewUrl(vo.getFileUrl() + IFilePreviewService.PREVIEW_SUFFIX);
+        }
+        return vo;
+    }
+
+    private boolean contentAddressed() {
+        return fileStorageProperties.getStorageMode() == FileStorageProperties.StorageMode.CONTENT_ADDRESSED;
+    }
+
+    /**
+     * 从附件地址（完整 URL 或 /upload/ 开头的路径）解析内容寻址存储对象的 SHA-256，不是存储对象地址时返回 null
+     */
+    private static String contentAddressedSha256(String url) {
+        int index = url.indexOf(UPLOAD_PREFIX);
+        if (index < 0) {
+            return null;
+        }
+        String path = url.substring(index + UPLOAD_PREFIX.length()).split("[?#]", 2)[0];
+        String sha256 = path.substring(path.lastIndexOf('/') + 1);
+        return SHA256_PATTERN.matcher(sha256).matches() && path.equals(blobPath(sha256)) ? sha256 : null;
+    }
+
+    /**
+     * 存储对象相对上传目录的路径，按哈希前两级分片，避免单目录文件过多
+     */
+    private static String blobPath(String sha256) {
+        return CAS_DIR + "/" + sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256;
+    }
+
+    private Path uploadRoot() {
+        return fileStorageProperties.resolveUploadRoot();
+    }
+
+    private BusinessException tooLarge() {
+        return new BusinessException(413, "文件大小不能超过 " + fileStorageProperties.getMaxFileSize().toMegabytes() + "MB");
+    }
+
+    private static void createDirectories(Path dir) {
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            log.error("创建上传目录失败：{}", dir, e);
+            throw new BusinessException("文件上传失败，请稍后重试");
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 不可用", e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("文件删除失败：{}", path);
+        }
+    }
+
+    private record StoredFile(Path path, String relativePath, String name) {
+    }
+
+    private record HashedContent(long size, String sha256) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.approval.module.system.vo;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 分片上传会话（客户端据此按 chunkSize 切分文件，并只补传 receivedChunks 之外的分片）
+ */
+@Data
+public class ChunkedUploadVo {
+
+    private String uploadId;
+
+    private String fileName;
+
+    private Long fileSize;
+
+    private Integer chunkSize;
+
+    private Integer chunkCount;
+
+    private List<Integer> receivedChunks;
+}
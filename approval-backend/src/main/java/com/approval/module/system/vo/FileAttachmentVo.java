@@ -0,0 +1,37 @@
+package com.approval.module.system.vo;
+
+import lombok.Data;
+
+import java.nio.file.Path;
+
+/**
+ * 附件下载信息（磁盘位置与响应头所需的元数据）
+ */
+@Data
+public class FileAttachmentVo {
+
+    private Path path;
+
+    private String fileName;
+
+    private String contentType;
+
+    private long size;
+
+    private long lastModified;
+
+    /**
+     * 强 ETag（含引号）：内容寻址文件为内容 SHA-256，其余为修改时间与大小
+     */
+    private String etag;
+
+    /**
+     * 内容寻址文件的路径与内容一一对应，可长期缓存
+     */
+    private boolean immutable;
+
+    /**
+     * 是否允许浏览器内联显示：仅按文件头识别出的图片与 PDF，其余一律作为附件下载
+     */
+    private boolean inline;
+}
@@ -0,0 +1,41 @@
+package com.approval.module.system.vo;
+
+import lombok.Data;
+
+/**
+ * 文件上传结果
+ */
+@Data
+public class FileUploadVo {
+
+    /**
+     * 文件记录ID，仅内容寻址存储返回
+     */
+    private Long fileId;
+
+    private String fileName;
+
+    private String filePath;
+
+    private String fileUrl;
+
+    private Long fileSize;
+
+    private String contentType;
+
+    /**
+     * 缩略图与预览图地址，仅图片返回；由后台异步生成，生成完成前访问返回 404，可回退到原图
+     */
+    private String thumbnailUrl;
+
+    private String previewUrl;
+
+    /**
+     * 文件内容 SHA-256（十六进制），按日期存储的 multipart 上传不计算
+     */
+    private String sha256;
+
+    private String businessType;
+
+    private Long businessId;
+}
@@ -0,0 +1,181 @@
+package com.approval.common.cache;
+
+import com.approval.config.RedisCacheProperties;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 二级缓存回源与失效交错：读者在写事务提交前读到旧值，提交后的失效先于读者写回 Redis 执行
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RedisCacheTierRaceTest {
+
+    private static final String CACHE_NAME = "race";
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisCacheTier redisTier;
+
+    /**
+     * 模拟数据库
+     */
+    private final Map<Long, String> database = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        RedisCacheProperties properties = new RedisCacheProperties();
+        properties.setKeyPrefix("it:" + UUID.randomUUID() + ":");
+        redisTier = new RedisCacheTier(new StringRedisTemplate(connectionFactory), new ObjectMapper(),
+                properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void loadWithoutInvalidationFillsRedis() {
+        database.put(1L, "研发部");
+
+        assertThat(new TestCache(null).get(1L)).isEqualTo("研发部");
+
+        assertThat(redisValue(1L)).isEqualTo("研发部");
+    }
+
+    @Test
+    void staleLoadFinishingAfterCommitEvictIsNotWrittenToRedis() throws Exception {
+        database.put(1L, "研发部");
+        Interleaving interleaving = new Interleaving();
+        TestCache reader = new TestCache(interleaving);
+
+        // 1. 读者（节点 A）二级缓存未命中，读到提交前的旧值后停住
+        CompletableFuture<String> read = CompletableFuture.supplyAsync(() -> reader.get(1L));
+        interleaving.awaitLoaded();
+
+        // 2. 写者（节点 B）提交并在提交后失效
+        database.put(1L, "研发中心");
+        new TestCache(null).invalidate(1L);
+
+        // 3. 读者继续，尝试把旧值写回 Redis
+        interleaving.resume();
+        assertThat(read.get(5, TimeUnit.SECONDS)).isEqualTo("研发部");
+
+        assertThat(redisValue(1L)).isNull();
+        assertThat(new TestCache(null).get(1L)).isEqualTo("研发中心");
+        assertThat(redisValue(1L)).isEqualTo("研发中心");
+    }
+
+    @Test
+    void staleBatchLoadFinishingAfterEvictAllIsNotWrittenToRedis() throws Exception {
+        database.put(1L, "研发部");
+        database.put(2L, "市场部");
+        Interleaving interleaving = new Interleaving();
+        TestCache reader = new TestCache(interleaving);
+
+        CompletableFuture<Map<Long, String>> read = CompletableFuture.supplyAsync(() -> reader.getAll(List.of(1L, 2L)));
+        interleaving.awaitLoaded();
+
+        database.put(2L, "市场中心");
+        new TestCache(null).invalidateAll();
+
+        interleaving.resume();
+        assertThat(read.get(5, TimeUnit.SECONDS)).containsEntry(2L, "市场部");
+
+        assertThat(redisValue(1L)).isNull();
+        assertThat(redisValue(2L)).isNull();
+        assertThat(new TestCache(null).getAll(List.of(1L, 2L))).containsEntry(2L, "市场中心");
+    }
+
+    private String redisValue(Long id) {
+        return redisTier.get(CACHE_NAME, id, redisTier.constructType(new TypeReference<String>() { }));
+    }
+
+    /**
+     * 让第一次回源在读完数据后停住，直到测试放行
+     */
+    private static final class Interleaving {
+
+        private final CountDownLatch loaded = new CountDownLatch(1);
+        private final CountDownLatch resumed = new CountDownLatch(1);
+
+        void pause() {
+            loaded.countDown();
+            try {
+                assertThat(resumed.await(5, TimeUnit.SECONDS)).isTrue();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+
+        void awaitLoaded() throws InterruptedException {
+            assertThat(loaded.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        void resume() {
+            resumed.countDown();
+        }
+    }
+
+    /**
+     * 每个实例相当于一个节点的本地缓存，共用同一个 Redis
+     */
+    private final class TestCache extends AbstractReferenceCache<String> {
+
+        private final Interleaving interleaving;
+
+        private TestCache(Interleaving interleaving) {
+            super(CACHE_NAME, 100, new TypeReference<String>() { }, redisTier, new SimpleMeterRegistry());
+            this.interleaving = interleaving;
+        }
+
+        @Override
+        protected String load(Long id) {
+            String value = database.get(id);
+            if (interleaving != null) {
+                interleaving.pause();
+            }
+            return value;
+        }
+
+        @Override
+        protected Map<Long, String> loadAll(Set<Long> ids) {
+            Map<Long, String> values = ids.stream()
+                    .filter(database::containsKey)
+                    .collect(Collectors.toMap(id -> id, database::get));
+            if (interleaving != null) {
+                interleaving.pause();
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.approval.module.approval.service.impl;
+
+import com.approval.module.approval.service.ITaskService;
+import com.approval.module.approval.vo.TaskVo;
+import com.approval.support.AbstractMySqlIntegrationTest;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 待办任务分页：实际执行的 SQL 条数与分页大小无关
+ */
+class TaskServiceImplQueryCountTest extends AbstractMySqlIntegrationTest {
+
+    private static final long ASSIGNEE_ID = TEST_ID_BASE;
+    private static final int TASK_COUNT = 25;
+
+    @Autowired
+    private ITaskService taskService;
+
+    @BeforeEach
+    void prepareTasks() {
+        insertUser(ASSIGNEE_ID, "审批人", null);
+        LocalDateTime createTime = LocalDateTime.of(2026, 1, 1, 9, 0);
+        for (int i = 1; i <= TASK_COUNT; i++) {
+            long id = TEST_ID_BASE + i;
+            insertUser(id, "申请人" + i, null);
+            jdbcTemplate.update("INSERT INTO bpm_application (app_id, app_no, app_type, title, applicant_id, status, submit_time) " +
+                    "VALUES (?, ?, 'leave', ?, ?, 1, ?)", id, "IT" + id, "请假" + i, id, createTime);
+            jdbcTemplate.update("INSERT INTO bpm_task (task_id, app_id, node_name, assignee_id, status, create_time) " +
+                    "VALUES (?, ?, '部门审批', ?, 0, ?)", id, id, ASSIGNEE_ID, createTime.plusMinutes(i));
+        }
+        statementCounter.reset();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 25})
+    void todoPageRunsCountAndSelectOnly(int pageSize) {
+        Page<TaskVo> page = taskService.getTodoTasks(ASSIGNEE_ID, 1, pageSize);
+
+        assertThat(page.getTotal()).isEqualTo(TASK_COUNT);
+        assertThat(page.getRecords()).hasSize(pageSize).allSatisfy(task -> {
+            assertThat(task.getAppNo()).startsWith("IT");
+            assertThat(task.getApplicantName()).startsWith("申请人");
+        });
+        // 分页插件的 COUNT 加一次联表查询，不随行数增加
+        assertThat(statementCounter.count()).isEqualTo(2);
+    }
+}
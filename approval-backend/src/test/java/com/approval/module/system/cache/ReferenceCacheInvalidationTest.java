@@ -0,0 +1,126 @@
+package com.approval.module.system.cache;
+
+import com.approval.common.cache.RedisCacheTier;
+import com.approval.module.system.entity.Dept;
+import com.approval.module.system.mapper.DeptMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 参考数据缓存失效：本地失效、跨节点通知、加载期间的失效
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReferenceCacheInvalidationTest {
+
+    @Mock
+    private DeptMapper deptMapper;
+    @Mock
+    private RedisCacheTier redisCacheTier;
+
+    @BeforeEach
+    void setUp() {
+        when(redisCacheTier.localTtl()).thenReturn(Duration.ofMinutes(5));
+    }
+
+    @Test
+    void localInvalidateDropsEntryAndBroadcasts() {
+        when(deptMapper.selectById(1L)).thenReturn(dept(1L, "研发部"), dept(1L, "研发中心"));
+        DeptCache cache = new DeptCache(deptMapper, redisCacheTier, new SimpleMeterRegistry());
+
+        assertThat(cache.get(1L).getDeptName()).isEqualTo("研发部");
+        assertThat(cache.get(1L).getDeptName()).isEqualTo("研发部");
+        verify(deptMapper, times(1)).selectById(1L);
+
+        cache.invalidate(1L);
+
+        assertThat(cache.get(1L).getDeptName()).isEqualTo("研发中心");
+        verify(deptMapper, times(2)).selectById(1L);
+        // 无事务时提交后回调立即执行，二级缓存删除（含广播）共两次
+        verify(redisCacheTier, times(2)).evict("dept", 1L);
+    }
+
+    @Test
+    void remoteInvalidationDropsLocalEntry() {
+        when(deptMapper.selectById(1L)).thenReturn(dept(1L, "研发部"), dept(1L, "研发中心"), dept(1L, "研发总部"));
+        DeptCache cache = new DeptCache(deptMapper, redisCacheTier, new SimpleMeterRegistry());
+        Consumer<String> listener = captureListener("dept");
+
+        assertThat(cache.get(1L).getDeptName()).isEqualTo("研发部");
+
+        listener.accept("1");
+        assertThat(cache.get(1L).getDeptName()).isEqualTo("研发中心");
+
+        listener.accept(RedisCacheTier.ALL_KEYS);
+        assertThat(cache.get(1L).getDeptName()).isEqualTo("研发总部");
+        verify(deptMapper, times(3)).selectById(1L);
+    }
+
+    @Test
+    void deptTreeReloadsWhenInvalidatedDuringLoad() {
+        DeptTree tree = new DeptTree(deptMapper, redisCacheTier);
+        tree.subscribe();
+        Consumer<String> listener = captureListener("deptTree");
+
+        AtomicBoolean first = new AtomicBoolean(true);
+        when(deptMapper.selectList(any())).thenAnswer(invocation -> {
+            if (first.getAndSet(false)) {
+                // 加载读到旧数据后、写入快照前收到失效通知
+                listener.accept(RedisCacheTier.ALL_KEYS);
+                return List.of(dept(1L, "研发部"));
+            }
+            return List.of(dept(1L, "研发中心"));
+        });
+
+        assertThat(tree.get(1L).getDeptName()).isEqualTo("研发部");
+        assertThat(tree.get(1L).getDeptName()).isEqualTo("研发中心");
+        assertThat(tree.get(1L).getDeptName()).isEqualTo("研发中心");
+        verify(deptMapper, times(2)).selectList(any());
+    }
+
+    @Test
+    void deptTreeInvalidatePublishesAfterCommit() {
+        when(deptMapper.selectList(any())).thenReturn(List.of(dept(1L, "研发部")), List.of(dept(1L, "研发中心")));
+        DeptTree tree = new DeptTree(deptMapper, redisCacheTier);
+
+        assertThat(tree.get(1L).getDeptName()).isEqualTo("研发部");
+        tree.invalidate();
+
+        assertThat(tree.get(1L).getDeptName()).isEqualTo("研发中心");
+        verify(redisCacheTier).publish("deptTree", RedisCacheTier.ALL_KEYS);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Consumer<String> captureListener(String cacheName) {
+        ArgumentCaptor<Consumer<String>> captor = ArgumentCaptor.forClass(Consumer.class);
+        verify(redisCacheTier).subscribe(eq(cacheName), captor.capture());
+        return captor.getValue();
+    }
+
+    private static Dept dept(Long deptId, String deptName) {
+        Dept dept = new Dept();
+        dept.setDeptId(deptId);
+        dept.setDeptName(deptName);
+        dept.setOrderNum(1);
+        return dept;
+    }
+}
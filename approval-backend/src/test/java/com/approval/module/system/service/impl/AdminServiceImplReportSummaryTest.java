@@ -0,0 +1,106 @@
+package com.approval.module.system.service.impl;
+
+import com.approval.module.system.service.IAdminService;
+import com.approval.module.system.vo.report.ReportSummaryVo;
+import com.approval.support.AbstractMySqlIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 报表概览：数据库侧分组计数及其到 ReportSummaryVo 的映射
+ */
+class AdminServiceImplReportSummaryTest extends AbstractMySqlIntegrationTest {
+
+    private static final long DEV_DEPT = TEST_ID_BASE + 1;
+    private static final long SALES_DEPT = TEST_ID_BASE + 2;
+    private static final LocalDateTime IN_MONTH = LocalDateTime.of(2031, 3, 15, 10, 0);
+
+    @Autowired
+    private IAdminService adminService;
+
+    private long nextAppId = TEST_ID_BASE;
+
+    @BeforeEach
+    void prepareData() {
+        insertDept(DEV_DEPT, "研发部");
+        insertDept(SALES_DEPT, "市场部");
+
+        insertUser(TEST_ID_BASE + 1, "研发一", DEV_DEPT);
+        insertUser(TEST_ID_BASE + 2, "研发二", DEV_DEPT);
+        insertUser(TEST_ID_BASE + 3, "研发停用", DEV_DEPT);
+        jdbcTemplate.update("UPDATE sys_user SET status = 0 WHERE user_id = ?", TEST_ID_BASE + 3);
+        insertUser(TEST_ID_BASE + 4, "市场一", SALES_DEPT);
+        insertUser(TEST_ID_BASE + 5, "市场二", SALES_DEPT);
+        insertUser(TEST_ID_BASE + 6, "市场删除", SALES_DEPT);
+        jdbcTemplate.update("UPDATE sys_user SET del_flag = 1 WHERE user_id = ?", TEST_ID_BASE + 6);
+
+        insertApplication(DEV_DEPT, "leave", 3, IN_MONTH);
+        insertApplication(DEV_DEPT, "leave", 4, IN_MONTH);
+        insertApplication(DEV_DEPT, "reimburse", 3, IN_MONTH);
+        insertApplication(SALES_DEPT, "reimburse", 1, IN_MONTH);
+        // 无部门的申请只计入类型汇总，不出现在部门月度统计中
+        insertApplication(null, "leave", 3, IN_MONTH);
+        // 月份之外、已删除的申请不计入
+        insertApplication(DEV_DEPT, "leave", 3, IN_MONTH.plusMonths(1));
+        long deleted = insertApplication(DEV_DEPT, "reimburse", 3, IN_MONTH);
+        jdbcTemplate.update("UPDATE bpm_application SET del_flag = 1 WHERE app_id = ?", deleted);
+    }
+
+    @Test
+    void summaryAggregatesHeadcountAndApplications() {
+        ReportSummaryVo vo = adminService.getReportSummary("2031-03");
+
+        assertThat(vo.getMonth()).isEqualTo("2031-03");
+
+        Map<Long, ReportSummaryVo.DeptEmployeeStat> headcount = vo.getDeptEmployeeStats().stream()
+                .collect(Collectors.toMap(ReportSummaryVo.DeptEmployeeStat::getDeptId, stat -> stat));
+        assertThat(headcount.get(DEV_DEPT).getUserCount()).isEqualTo(2L);
+        assertThat(headcount.get(DEV_DEPT).getDeptName()).isEqualTo("研发部");
+        assertThat(headcount.get(SALES_DEPT).getUserCount()).isEqualTo(2L);
+
+        ReportSummaryVo.ApplicationTypeStat leave = vo.getApplicationStats().getLeave();
+        assertThat(leave.getTotal()).isEqualTo(3L);
+        assertThat(leave.getApproved()).isEqualTo(2L);
+        assertThat(leave.getApprovalRate()).isEqualByComparingTo("66.67");
+        ReportSummaryVo.ApplicationTypeStat reimburse = vo.getApplicationStats().getReimburse();
+        assertThat(reimburse.getTotal()).isEqualTo(2L);
+        assertThat(reimburse.getApproved()).isEqualTo(1L);
+        assertThat(reimburse.getApprovalRate()).isEqualByComparingTo("50.00");
+
+        assertThat(vo.getDeptMonthlyStats()).extracting(ReportSummaryVo.DeptMonthlyStat::getDeptId)
+                .containsExactly(DEV_DEPT, SALES_DEPT);
+        ReportSummaryVo.DeptMonthlyStat dev = vo.getDeptMonthlyStats().get(0);
+        assertThat(dev.getDeptName()).isEqualTo("研发部");
+        assertThat(dev.getLeaveTotal()).isEqualTo(2L);
+        assertThat(dev.getReimburseTotal()).isEqualTo(1L);
+        assertThat(dev.getApprovalRate()).isEqualByComparingTo("66.67");
+        ReportSummaryVo.DeptMonthlyStat sales = vo.getDeptMonthlyStats().get(1);
+        assertThat(sales.getLeaveTotal()).isZero();
+        assertThat(sales.getReimburseTotal()).isEqualTo(1L);
+        assertThat(sales.getApprovalRate()).isEqualByComparingTo("0.00");
+    }
+
+    @Test
+    void emptyMonthHasNoApplicationStats() {
+        ReportSummaryVo vo = adminService.getReportSummary("2031-05");
+
+        assertThat(vo.getApplicationStats().getLeave().getTotal()).isZero();
+        assertThat(vo.getApplicationStats().getLeave().getApprovalRate()).isEqualByComparingTo("0.00");
+        assertThat(vo.getDeptMonthlyStats()).isEmpty();
+    }
+
+    private long insertApplication(Long deptId, String appType, int status, LocalDateTime submitTime) {
+        long appId = ++nextAppId;
+        jdbcTemplate.update("INSERT INTO bpm_application (app_id, app_no, app_type, title, applicant_id, dept_id, status, submit_time) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", appId, "IT" + appId, appType, appType + appId, TEST_ID_BASE + 1,
+                deptId, status, submitTime);
+        return appId;
+    }
+}
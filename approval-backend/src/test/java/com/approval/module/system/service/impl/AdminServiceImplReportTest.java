@@ -0,0 +1,118 @@
+package com.approval.module.system.service.impl;
+
+import com.approval.module.system.entity.Dept;
+import com.approval.module.system.entity.User;
+import com.approval.module.system.mapper.DeptMapper;
+import com.approval.module.system.mapper.ReportMapper;
+import com.approval.module.system.mapper.UserMapper;
+import com.approval.module.system.vo.report.ReportDeptDetailVo;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 部门报表明细：申请行逐行折叠进成员累加器，不保留行对象
+ */
+@ExtendWith(MockitoExtension.class)
+class AdminServiceImplReportTest {
+
+    private static final long DEPT_ID = 3L;
+    private static final int ROW_COUNT = 500_000;
+    private static final int APPLICANT_COUNT = 50;
+
+    @Mock
+    private UserMapper userMapper;
+    @Mock
+    private DeptMapper deptMapper;
+    @Mock
+    private ReportMapper reportMapper;
+
+    @InjectMocks
+    private AdminServiceImpl adminService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deptReportDetailFoldsRowsWithoutRetainingThem() {
+        Dept dept = new Dept();
+        dept.setDeptId(DEPT_ID);
+        dept.setDeptName("研发部");
+        when(deptMapper.selectById(DEPT_ID)).thenReturn(dept);
+        when(reportMapper.countDeptMembersByPost(eq(DEPT_ID), any(), any())).thenReturn(Collections.emptyList());
+        when(userMapper.selectBatchIds(anyCollection())).thenReturn(users());
+
+        doAnswer(invocation -> {
+            ResultHandler<ReportMapper.DeptAppRow> handler = invocation.getArgument(3);
+            DefaultResultContext<ReportMapper.DeptAppRow> context = new DefaultResultContext<>();
+            // 所有回调复用同一个行对象：处理器若保留行引用稍后再汇总，结果会全部变成最后一行
+            ReportMapper.DeptAppRow row = new ReportMapper.DeptAppRow();
+            for (int i = 0; i < ROW_COUNT; i++) {
+                fill(row, i);
+                context.nextResultObject(row);
+                handler.handleResult(context);
+            }
+            return null;
+        }).when(reportMapper).streamDeptApplications(eq(DEPT_ID), any(), any(), any(ResultHandler.class));
+
+        ReportDeptDetailVo vo = adminService.getDeptReportDetail(DEPT_ID, "2026-01");
+
+        // 累加器个数等于申请人数，与行数无关
+        ArgumentCaptor<Collection<Long>> applicantIds = ArgumentCaptor.forClass(Collection.class);
+        verify(userMapper).selectBatchIds(applicantIds.capture());
+        assertThat(applicantIds.getValue()).hasSize(APPLICANT_COUNT);
+
+        int perApplicant = ROW_COUNT / APPLICANT_COUNT;
+        assertThat(vo.getDeptName()).isEqualTo("研发部");
+        assertThat(vo.getLeaveDetails()).hasSize(APPLICANT_COUNT / 2).allSatisfy(detail -> {
+            assertThat(detail.getTimes()).isEqualTo(perApplicant);
+            assertThat(detail.getDays()).isEqualByComparingTo(new BigDecimal("1.5").multiply(BigDecimal.valueOf(perApplicant)));
+            assertThat(detail.getRealName()).isEqualTo("成员" + detail.getUserId());
+        });
+        assertThat(vo.getReimburseDetails()).hasSize(APPLICANT_COUNT / 2).allSatisfy(detail -> {
+            assertThat(detail.getTimes()).isEqualTo(perApplicant);
+            assertThat(detail.getAmount()).isEqualByComparingTo(new BigDecimal("100.25").multiply(BigDecimal.valueOf(perApplicant)));
+        });
+    }
+
+    private static void fill(ReportMapper.DeptAppRow row, int i) {
+        row.setApplicantId(i % APPLICANT_COUNT + 1);
+        if (i % 2 == 0) {
+            row.setAppType("leave");
+            row.setDays(new BigDecimal("1.5"));
+            row.setAmount(null);
+        } else {
+            row.setAppType("reimburse");
+            row.setDays(null);
+            row.setAmount(new BigDecimal("100.25"));
+        }
+    }
+
+    private static List<User> users() {
+        List<User> users = new ArrayList<>();
+        for (long id = 1; id <= APPLICANT_COUNT; id++) {
+            User user = new User();
+            user.setUserId(id);
+            user.setRealName("成员" + id);
+            users.add(user);
+        }
+        return users;
+    }
+}
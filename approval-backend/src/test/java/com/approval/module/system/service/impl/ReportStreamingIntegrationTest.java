@@ -0,0 +1,105 @@
+package com.approval.module.system.service.impl;
+
+import com.approval.module.system.mapper.ReportMapper;
+import com.approval.module.system.service.IAdminService;
+import com.approval.module.system.vo.report.ReportDeptDetailVo;
+import com.approval.support.AbstractMySqlIntegrationTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 部门报表明细的流式查询（fetchSize = Integer.MIN_VALUE）在真实 MySQL 驱动上的行为
+ */
+class ReportStreamingIntegrationTest extends AbstractMySqlIntegrationTest {
+
+    private static final long DEPT_ID = TEST_ID_BASE + 1;
+    private static final int ROW_COUNT = 200_000;
+    private static final int APPLICANT_COUNT = 50;
+    private static final LocalDateTime SUBMIT_TIME = LocalDateTime.of(2031, 3, 15, 10, 0);
+
+    @Autowired
+    private IAdminService adminService;
+
+    @Autowired
+    private ReportMapper reportMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void seedApplications() {
+        insertDept(DEPT_ID, "研发部");
+        for (int i = 1; i <= APPLICANT_COUNT; i++) {
+            insertUser(TEST_ID_BASE + i, "成员" + i, DEPT_ID);
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET SESSION cte_max_recursion_depth = " + (ROW_COUNT + 1));
+                statement.executeUpdate("INSERT INTO bpm_application " +
+                        "(app_id, app_no, app_type, title, applicant_id, dept_id, status, submit_time) " +
+                        "WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < " + ROW_COUNT + ") " +
+                        "SELECT " + TEST_ID_BASE + " + n, CONCAT('IT', n), IF(n % 2 = 0, 'leave', 'reimburse'), 'stream', " +
+                        TEST_ID_BASE + " + n % " + APPLICANT_COUNT + " + 1, " + DEPT_ID + ", 3, '2031-03-15 10:00:00' FROM seq");
+                statement.execute("SET SESSION cte_max_recursion_depth = DEFAULT");
+            }
+            return null;
+        });
+        jdbcTemplate.update("INSERT INTO bpm_leave_application (app_id, leave_type, start_time, end_time, days, reason) " +
+                "SELECT app_id, 1, submit_time, submit_time, 1.5, 'stream' FROM bpm_application " +
+                "WHERE dept_id = ? AND app_type = 'leave'", DEPT_ID);
+        jdbcTemplate.update("INSERT INTO bpm_reimburse_application (app_id, expense_type, amount, reason, invoice_attachment) " +
+                "SELECT app_id, 1, 100.25, 'stream', 'x' FROM bpm_application " +
+                "WHERE dept_id = ? AND app_type = 'reimburse'", DEPT_ID);
+    }
+
+    @Test
+    void deptReportDetailAggregatesStreamedRows() {
+        ReportDeptDetailVo vo = adminService.getDeptReportDetail(DEPT_ID, "2031-03");
+
+        int perApplicant = ROW_COUNT / APPLICANT_COUNT;
+        assertThat(vo.getLeaveDetails()).hasSize(APPLICANT_COUNT / 2).allSatisfy(detail -> {
+            assertThat(detail.getTimes()).isEqualTo(perApplicant);
+            assertThat(detail.getDays()).isEqualByComparingTo(new BigDecimal("1.5").multiply(BigDecimal.valueOf(perApplicant)));
+        });
+        assertThat(vo.getReimburseDetails()).hasSize(APPLICANT_COUNT / 2).allSatisfy(detail -> {
+            assertThat(detail.getTimes()).isEqualTo(perApplicant);
+            assertThat(detail.getAmount()).isEqualByComparingTo(new BigDecimal("100.25").multiply(BigDecimal.valueOf(perApplicant)));
+        });
+    }
+
+    /**
+     * 驱动以流式结果集返回时，结果集未读完前同一连接上不能执行其他语句；
+     * 若 fetchSize 设置失效、驱动整体缓存结果集，这里的查询会成功
+     */
+    @Test
+    void driverStreamsRowsInsteadOfBufferingResultSet() {
+        AtomicInteger handled = new AtomicInteger();
+        AtomicReference<Exception> concurrentQueryError = new AtomicReference<>();
+
+        transactionTemplate.executeWithoutResult(status -> reportMapper.streamDeptApplications(DEPT_ID,
+                SUBMIT_TIME.minusDays(1), SUBMIT_TIME.plusDays(1), context -> {
+                    handled.incrementAndGet();
+                    try {
+                        jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+                    } catch (Exception e) {
+                        concurrentQueryError.set(e);
+                    }
+                    context.stop();
+                }));
+
+        assertThat(handled).hasValue(1);
+        assertThat(concurrentQueryError.get()).isNotNull()
+                .hasStackTraceContaining("Streaming result set");
+    }
+}
@@ -0,0 +1,75 @@
+package com.approval.support;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.MountableFile;
+
+/**
+ * MySQL 集成测试基类
+ * 容器启动时按顺序执行 sql/01-create-tables.sql、sql/02-init-data.sql；Redis 二级缓存关闭，
+ * 测试数据使用 900000 以上的 ID，每个用例开始前清理。本机没有 Docker 时整类跳过
+ */
+@SpringBootTest(properties = {
+        "approval.cache.redis.enabled=false",
+        "mybatis-plus.configuration.log-impl=org.apache.ibatis.logging.nologging.NoLoggingImpl",
+        "file.upload-path=${java.io.tmpdir}/approval-it-upload",
+        "file.preview.enabled=false"
+})
+@Import(StatementCounter.class)
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class AbstractMySqlIntegrationTest {
+
+    protected static final long TEST_ID_BASE = 900_000L;
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0")
+            .withDatabaseName("approval_system")
+            .withUsername("root")
+            .withPassword("test")
+            .withCopyFileToContainer(MountableFile.forHostPath("../sql/01-create-tables.sql"),
+                    "/docker-entrypoint-initdb.d/01-create-tables.sql")
+            .withCopyFileToContainer(MountableFile.forHostPath("../sql/02-init-data.sql"),
+                    "/docker-entrypoint-initdb.d/02-init-data.sql");
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    protected StatementCounter statementCounter;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> MYSQL.getJdbcUrl()
+                + "?useUnicode=true&characterEncoding=utf8&serverTimezone=Asia/Shanghai&useSSL=false");
+        registry.add("spring.datasource.username", MYSQL::getUsername);
+        registry.add("spring.datasource.password", MYSQL::getPassword);
+    }
+
+    @BeforeEach
+    void cleanTestData() {
+        jdbcTemplate.update("DELETE FROM bpm_task WHERE task_id >= ?", TEST_ID_BASE);
+        jdbcTemplate.update("DELETE FROM bpm_leave_application WHERE app_id >= ?", TEST_ID_BASE);
+        jdbcTemplate.update("DELETE FROM bpm_reimburse_application WHERE app_id >= ?", TEST_ID_BASE);
+        jdbcTemplate.update("DELETE FROM bpm_application WHERE app_id >= ?", TEST_ID_BASE);
+        jdbcTemplate.update("DELETE FROM sys_user WHERE user_id >= ?", TEST_ID_BASE);
+        jdbcTemplate.update("DELETE FROM sys_dept WHERE dept_id >= ?", TEST_ID_BASE);
+        statementCounter.reset();
+    }
+
+    protected void insertUser(long userId, String realName, Long deptId) {
+        jdbcTemplate.update("INSERT INTO sys_user (user_id, username, password, real_name, dept_id) VALUES (?, ?, 'x', ?, ?)",
+                userId, "it_user_" + userId, realName, deptId);
+    }
+
+    protected void insertDept(long deptId, String deptName) {
+        jdbcTemplate.update("INSERT INTO sys_dept (dept_id, parent_id, dept_name) VALUES (?, 0, ?)", deptId, deptName);
+    }
+}
@@ -32,7 +32,8 @@ CREATE TABLE sys_user (
     create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     INDEX idx_username (username),
-    INDEX idx_dept_id (dept_id)
+    INDEX idx_dept_id (dept_id),
+    INDEX idx_create_user (create_time, user_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户表';
 
 -- 2.2 部门表
@@ -122,9 +123,12 @@ CREATE TABLE bpm_application (
     create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
     INDEX idx_applicant_id (applicant_id),
+    INDEX idx_applicant_status_submit (applicant_id, status, submit_time),
+    INDEX idx_applicant_submit_app (applicant_id, submit_time, app_id),
     INDEX idx_status (status),
     INDEX idx_app_type (app_type),
-    INDEX idx_submit_time (submit_time)
+    INDEX idx_submit_time (submit_time),
+    INDEX idx_submit_report (submit_time, dept_id, app_type, status, del_flag)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='审批申请主表';
 
 -- 3.2 请假申请表
@@ -168,7 +172,9 @@ CREATE TABLE bpm_task (
     finish_time DATETIME COMMENT '完成时间',
     INDEX idx_app_id (app_id),
     INDEX idx_assignee_id (assignee_id),
-    INDEX idx_status (status)
+    INDEX idx_status (status),
+    INDEX idx_assignee_status_create (assignee_id, status, create_time, task_id),
+    INDEX idx_assignee_status_finish (assignee_id, status, finish_time, task_id)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='审批任务表';
 
 -- 3.5 审批历史表
@@ -184,9 +190,45 @@ CREATE TABLE bpm_history (
     approve_time DATETIME COMMENT '审批时间',
     next_node VARCHAR(100) COMMENT '下一节点',
     create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
-    INDEX idx_app_id (app_id)
+    INDEX idx_app_id (app_id),
+    INDEX idx_app_approve_time (app_id, approve_time),
+    INDEX idx_task_approve_time (task_id, approve_time)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='审批历史表';
 
+-- 3.6 申请单号号段表
+CREATE TABLE bpm_app_no_seq (
+    biz_date CHAR(8) PRIMARY KEY COMMENT '业务日期（yyyyMMdd）',
+    max_serial BIGINT NOT NULL DEFAULT 0 COMMENT '当日已分配的最大流水号',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='申请单号号段表';
+
+-- 3.7 用户申请统计表
+CREATE TABLE bpm_user_app_stats (
+    user_id BIGINT PRIMARY KEY COMMENT '申请人ID',
+    total_count BIGINT NOT NULL DEFAULT 0 COMMENT '申请总数',
+    pending_count BIGINT NOT NULL DEFAULT 0 COMMENT '待审批数',
+    approved_count BIGINT NOT NULL DEFAULT 0 COMMENT '已通过数',
+    rejected_count BIGINT NOT NULL DEFAULT 0 COMMENT '已拒绝数',
+    withdrawn_count BIGINT NOT NULL DEFAULT 0 COMMENT '已撤回数',
+    leave_count BIGINT NOT NULL DEFAULT 0 COMMENT '请假申请数',
+    reimburse_count BIGINT NOT NULL DEFAULT 0 COMMENT '报销申请数',
+    total_leave_days DECIMAL(10,2) NOT NULL DEFAULT 0 COMMENT '已通过请假天数合计',
+    total_reimburse_amount DECIMAL(14,2) NOT NULL DEFAULT 0 COMMENT '已通过报销金额合计',
+    last_submit_time DATETIME COMMENT '最近提交时间',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户申请统计表';
+
+-- 3.8 审批人每日审批汇总表
+CREATE TABLE bpm_approver_daily_stats (
+    approver_id BIGINT NOT NULL COMMENT '审批人ID',
+    stat_date DATE NOT NULL COMMENT '审批日期',
+    app_type VARCHAR(20) NOT NULL COMMENT '申请类型：leave/reimburse',
+    action TINYINT NOT NULL COMMENT '审批动作：1=同意 2=拒绝',
+    approve_count BIGINT NOT NULL DEFAULT 0 COMMENT '审批数量',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (approver_id, stat_date, app_type, action)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='审批人每日审批汇总表';
+
 -- =============================================
 -- 文件管理表
 -- =============================================
@@ -201,11 +243,46 @@ CREATE TABLE sys_file (
     business_type VARCHAR(50) COMMENT '业务类型',
     business_id BIGINT COMMENT '业务ID',
     uploader_id BIGINT COMMENT '上传人ID',
+    sha256 CHAR(64) COMMENT '内容SHA-256（内容寻址存储）',
     del_flag TINYINT DEFAULT 0 COMMENT '删除标志：0=正常 1=删除',
     create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
-    INDEX idx_business (business_type, business_id)
+    INDEX idx_business (business_type, business_id),
+    INDEX idx_sha256 (sha256)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='文件表';
 
+-- 4.2 文件存储对象表（按内容去重）
+CREATE TABLE sys_file_blob (
+    sha256 CHAR(64) PRIMARY KEY COMMENT '内容SHA-256',
+    storage_path VARCHAR(255) NOT NULL COMMENT '相对上传目录的存储路径',
+    file_size BIGINT NOT NULL COMMENT '文件大小（字节）',
+    ref_count INT NOT NULL DEFAULT 0 COMMENT '引用数（sys_file 记录数）',
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='文件存储对象表';
+
+CREATE TABLE sys_file_upload (
+    upload_id VARCHAR(32) PRIMARY KEY COMMENT '上传会话ID',
+    uploader_id BIGINT NOT NULL COMMENT '上传人ID',
+    file_name VARCHAR(255) NOT NULL COMMENT '原始文件名',
+    content_type VARCHAR(100) COMMENT '文件MIME类型',
+    file_size BIGINT NOT NULL COMMENT '文件大小（字节）',
+    chunk_size INT NOT NULL COMMENT '分片大小（字节，最后一片可以更小）',
+    chunk_count INT NOT NULL COMMENT '分片数',
+    business_type VARCHAR(50) COMMENT '业务类型',
+    business_id BIGINT COMMENT '业务ID',
+    status TINYINT NOT NULL DEFAULT 0 COMMENT '状态：0=上传中 1=合并中',
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    INDEX idx_create_time (create_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='分片上传会话表';
+
+CREATE TABLE sys_file_upload_chunk (
+    upload_id VARCHAR(32) NOT NULL COMMENT '上传会话ID',
+    chunk_index INT NOT NULL COMMENT '分片序号（从0开始）',
+    sha256 CHAR(64) NOT NULL COMMENT '分片SHA-256',
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '接收时间',
+    PRIMARY KEY (upload_id, chunk_index)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='分片上传已接收分片表';
+
 -- =============================================
 -- 可选功能表（暂不创建，预留）
 -- =============================================
@@ -133,6 +133,21 @@ INSERT INTO bpm_task (app_id, node_name, assignee_id, assignee_name, status) VAL
 (2, '部门经理审批', 2, '李经理', 0),  -- 待审批
 (3, '部门经理审批', 2, '李经理', 0);  -- 待审批
 
+-- 用户申请统计（由测试申请汇总）
+INSERT INTO bpm_user_app_stats (user_id, total_count, pending_count, approved_count, rejected_count,
+    withdrawn_count, leave_count, reimburse_count, total_leave_days, total_reimburse_amount, last_submit_time)
+SELECT a.applicant_id, COUNT(*),
+    SUM(a.status = 1), SUM(a.status = 3), SUM(a.status = 4), SUM(a.status = 5),
+    SUM(a.app_type = 'leave'), SUM(a.app_type = 'reimburse'),
+    COALESCE(SUM(CASE WHEN a.status = 3 THEN l.days END), 0),
+    COALESCE(SUM(CASE WHEN a.status = 3 THEN r.amount END), 0),
+    MAX(a.submit_time)
+FROM bpm_application a
+LEFT JOIN bpm_leave_application l ON l.app_id = a.app_id
+LEFT JOIN bpm_reimburse_application r ON r.app_id = a.app_id
+WHERE a.del_flag = 0
+GROUP BY a.applicant_id;
+
 -- =============================================
 -- 脚本执行完成提示
 -- =============================================
@@ -0,0 +1,148 @@
+-- =============================================
+-- 审批系统增量升级脚本
+-- 说明：已执行过 01/02 脚本的存量数据库执行本脚本即可，
+--       全新安装直接执行 01-create-tables.sql（已包含以下变更）
+-- =============================================
+
+USE approval_system;
+
+-- =============================================
+-- 1. 申请单号号段表
+-- =============================================
+
+CREATE TABLE IF NOT EXISTS bpm_app_no_seq (
+    biz_date CHAR(8) PRIMARY KEY COMMENT '业务日期（yyyyMMdd）',
+    max_serial BIGINT NOT NULL DEFAULT 0 COMMENT '当日已分配的最大流水号',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='申请单号号段表';
+
+-- =============================================
+-- 2. 审批历史按任务查询最新记录
+-- =============================================
+
+ALTER TABLE bpm_history ADD INDEX idx_task_approve_time (task_id, approve_time);
+
+-- =============================================
+-- 3. 申请人审批历史分页查询
+-- =============================================
+
+ALTER TABLE bpm_application ADD INDEX idx_applicant_status_submit (applicant_id, status, submit_time);
+ALTER TABLE bpm_history ADD INDEX idx_app_approve_time (app_id, approve_time);
+
+-- =============================================
+-- 4. 用户申请统计表
+-- =============================================
+
+CREATE TABLE IF NOT EXISTS bpm_user_app_stats (
+    user_id BIGINT PRIMARY KEY COMMENT '申请人ID',
+    total_count BIGINT NOT NULL DEFAULT 0 COMMENT '申请总数',
+    pending_count BIGINT NOT NULL DEFAULT 0 COMMENT '待审批数',
+    approved_count BIGINT NOT NULL DEFAULT 0 COMMENT '已通过数',
+    rejected_count BIGINT NOT NULL DEFAULT 0 COMMENT '已拒绝数',
+    withdrawn_count BIGINT NOT NULL DEFAULT 0 COMMENT '已撤回数',
+    leave_count BIGINT NOT NULL DEFAULT 0 COMMENT '请假申请数',
+    reimburse_count BIGINT NOT NULL DEFAULT 0 COMMENT '报销申请数',
+    total_leave_days DECIMAL(10,2) NOT NULL DEFAULT 0 COMMENT '已通过请假天数合计',
+    total_reimburse_amount DECIMAL(14,2) NOT NULL DEFAULT 0 COMMENT '已通过报销金额合计',
+    last_submit_time DATETIME COMMENT '最近提交时间',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='用户申请统计表';
+
+-- 按现有申请回填（与 POST /admin/applications/stats/rebuild 逻辑一致）
+DELETE FROM bpm_user_app_stats;
+INSERT INTO bpm_user_app_stats (user_id, total_count, pending_count, approved_count, rejected_count,
+    withdrawn_count, leave_count, reimburse_count, total_leave_days, total_reimburse_amount, last_submit_time)
+SELECT a.applicant_id, COUNT(*),
+    SUM(a.status = 1), SUM(a.status = 3), SUM(a.status = 4), SUM(a.status = 5),
+    SUM(a.app_type = 'leave'), SUM(a.app_type = 'reimburse'),
+    COALESCE(SUM(CASE WHEN a.status = 3 THEN l.days END), 0),
+    COALESCE(SUM(CASE WHEN a.status = 3 THEN r.amount END), 0),
+    MAX(a.submit_time)
+FROM bpm_application a
+LEFT JOIN bpm_leave_application l ON l.app_id = a.app_id
+LEFT JOIN bpm_reimburse_application r ON r.app_id = a.app_id
+WHERE a.del_flag = 0
+GROUP BY a.applicant_id;
+
+-- =============================================
+-- 5. 审批人每日审批汇总表
+-- =============================================
+
+CREATE TABLE IF NOT EXISTS bpm_approver_daily_stats (
+    approver_id BIGINT NOT NULL COMMENT '审批人ID',
+    stat_date DATE NOT NULL COMMENT '审批日期',
+    app_type VARCHAR(20) NOT NULL COMMENT '申请类型：leave/reimburse',
+    action TINYINT NOT NULL COMMENT '审批动作：1=同意 2=拒绝',
+    approve_count BIGINT NOT NULL DEFAULT 0 COMMENT '审批数量',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+    PRIMARY KEY (approver_id, stat_date, app_type, action)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='审批人每日审批汇总表';
+
+-- 按已处理任务的审批历史回填
+DELETE FROM bpm_approver_daily_stats;
+INSERT INTO bpm_approver_daily_stats (approver_id, stat_date, app_type, action, approve_count)
+SELECT h.approver_id, DATE(h.approve_time), a.app_type, h.action, COUNT(*)
+FROM bpm_history h
+JOIN bpm_task t ON t.task_id = h.task_id AND t.status = 1
+JOIN bpm_application a ON a.app_id = h.app_id
+WHERE h.action IS NOT NULL AND h.approve_time IS NOT NULL
+GROUP BY h.approver_id, DATE(h.approve_time), a.app_type, h.action;
+
+-- =============================================
+-- 6. 管理员月度报表分组统计（覆盖索引）
+-- =============================================
+
+ALTER TABLE bpm_application ADD INDEX idx_submit_report (submit_time, dept_id, app_type, status, del_flag);
+
+-- =============================================
+-- 7. 列表游标分页（复合索引与排序键一致）
+-- 管理员全量申请列表按 (submit_time, app_id) 定位，直接使用 idx_submit_time（InnoDB 二级索引隐含主键列）
+-- =============================================
+
+ALTER TABLE bpm_application ADD INDEX idx_applicant_submit_app (applicant_id, submit_time, app_id);
+ALTER TABLE bpm_task ADD INDEX idx_assignee_status_create (assignee_id, status, create_time, task_id);
+ALTER TABLE bpm_task ADD INDEX idx_assignee_status_finish (assignee_id, status, finish_time, task_id);
+ALTER TABLE sys_user ADD INDEX idx_create_user (create_time, user_id);
+
+-- =============================================
+-- 8. 附件内容寻址存储（按 SHA-256 去重）
+-- =============================================
+
+ALTER TABLE sys_file ADD COLUMN sha256 CHAR(64) COMMENT '内容SHA-256（内容寻址存储）' AFTER uploader_id;
+ALTER TABLE sys_file ADD INDEX idx_sha256 (sha256);
+
+CREATE TABLE IF NOT EXISTS sys_file_blob (
+    sha256 CHAR(64) PRIMARY KEY COMMENT '内容SHA-256',
+    storage_path VARCHAR(255) NOT NULL COMMENT '相对上传目录的存储路径',
+    file_size BIGINT NOT NULL COMMENT '文件大小（字节）',
+    ref_count INT NOT NULL DEFAULT 0 COMMENT '引用数（sys_file 记录数）',
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    update_time DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='文件存储对象表';
+
+-- =============================================
+-- 9. 大附件分片上传（断点续传）
+-- =============================================
+
+CREATE TABLE IF NOT EXISTS sys_file_upload (
+    upload_id VARCHAR(32) PRIMARY KEY COMMENT '上传会话ID',
+    uploader_id BIGINT NOT NULL COMMENT '上传人ID',
+    file_name VARCHAR(255) NOT NULL COMMENT '原始文件名',
+    content_type VARCHAR(100) COMMENT '文件MIME类型',
+    file_size BIGINT NOT NULL COMMENT '文件大小（字节）',
+    chunk_size INT NOT NULL COMMENT '分片大小（字节，最后一片可以更小）',
+    chunk_count INT NOT NULL COMMENT '分片数',
+    business_type VARCHAR(50) COMMENT '业务类型',
+    business_id BIGINT COMMENT '业务ID',
+    status TINYINT NOT NULL DEFAULT 0 COMMENT '状态：0=上传中 1=合并中',
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
+    INDEX idx_create_time (create_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='分片上传会话表';
+
+CREATE TABLE IF NOT EXISTS sys_file_upload_chunk (
+    upload_id VARCHAR(32) NOT NULL COMMENT '上传会话ID',
+    chunk_index INT NOT NULL COMMENT '分片序号（从0开始）',
+    sha256 CHAR(64) NOT NULL COMMENT '分片SHA-256',
+    create_time DATETIME DEFAULT CURRENT_TIMESTAMP COMMENT '接收时间',
+    PRIMARY KEY (upload_id, chunk_index)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='分片上传已接收分片表';